@@ -0,0 +1,44 @@
+package io.github.oldmanpushcart.jpromisor.jcstress;
+
+import io.github.oldmanpushcart.jpromisor.LeakDetector;
+import io.github.oldmanpushcart.jpromisor.Promise;
+import io.github.oldmanpushcart.jpromisor.Promisor;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.III_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * trySuccess与tryCancel竞争：有且只有一方胜出，最终状态与胜出方一致
+ * <p>
+ * r1: trySuccess是否成功；r2: tryCancel是否成功；r3: 最终状态，1成功，2取消
+ * </p>
+ */
+@JCStressTest
+@Outcome(id = "1, 0, 1", expect = ACCEPTABLE, desc = "trySuccess wins")
+@Outcome(id = "0, 1, 2", expect = ACCEPTABLE, desc = "tryCancel wins")
+@Outcome(expect = FORBIDDEN, desc = "zero or two winners, or state mismatch")
+@State
+public class CompletionRaceTest {
+
+    private static final Promisor promisor = new Promisor().leakDetector(LeakDetector.disabled);
+
+    private final Promise<Integer> promise = promisor.promise();
+
+    @Actor
+    public void success(III_Result r) {
+        r.r1 = promise.trySuccess(1) ? 1 : 0;
+    }
+
+    @Actor
+    public void cancel(III_Result r) {
+        r.r2 = promise.tryCancel() ? 1 : 0;
+    }
+
+    @Arbiter
+    public void state(III_Result r) {
+        r.r3 = promise.isSuccess() ? 1 : promise.isCancelled() ? 2 : 0;
+    }
+
+}
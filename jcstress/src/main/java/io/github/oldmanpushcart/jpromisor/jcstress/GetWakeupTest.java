@@ -0,0 +1,34 @@
+package io.github.oldmanpushcart.jpromisor.jcstress;
+
+import io.github.oldmanpushcart.jpromisor.LeakDetector;
+import io.github.oldmanpushcart.jpromisor.Promise;
+import io.github.oldmanpushcart.jpromisor.Promisor;
+import org.openjdk.jcstress.annotations.*;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * get()与完成竞争：等待者总能被唤醒，不会丢失唤醒
+ */
+@JCStressTest(Mode.Termination)
+@Outcome(id = "TERMINATED", expect = ACCEPTABLE, desc = "waiter woke up")
+@Outcome(id = "STALE", expect = FORBIDDEN, desc = "lost wakeup")
+@State
+public class GetWakeupTest {
+
+    private static final Promisor promisor = new Promisor().leakDetector(LeakDetector.disabled);
+
+    private final Promise<Integer> promise = promisor.promise();
+
+    @Actor
+    public void waiter() {
+        promise.awaitUninterruptible();
+    }
+
+    @Signal
+    public void complete() {
+        promise.trySuccess(1);
+    }
+
+}
@@ -0,0 +1,53 @@
+package io.github.oldmanpushcart.jpromisor.jcstress;
+
+import io.github.oldmanpushcart.jpromisor.LeakDetector;
+import io.github.oldmanpushcart.jpromisor.Promise;
+import io.github.oldmanpushcart.jpromisor.Promisor;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * appendListener与完成通知竞争：两个监听器均恰好执行一次
+ * <p>
+ * r1: 第一个监听器执行次数；r2: 第二个监听器执行次数
+ * </p>
+ */
+@JCStressTest
+@Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "every listener invoked exactly once")
+@Outcome(expect = FORBIDDEN, desc = "listener lost or invoked twice")
+@State
+public class ListenerRaceTest {
+
+    private static final Promisor promisor = new Promisor().leakDetector(LeakDetector.disabled);
+
+    private final Promise<Integer> promise = promisor.promise();
+    private final AtomicInteger first = new AtomicInteger();
+    private final AtomicInteger second = new AtomicInteger();
+
+    @Actor
+    public void appendFirst() {
+        promise.appendListener(future -> first.incrementAndGet());
+    }
+
+    @Actor
+    public void appendSecond() {
+        promise.appendListener(future -> second.incrementAndGet());
+    }
+
+    @Actor
+    public void complete() {
+        promise.trySuccess(1);
+    }
+
+    @Arbiter
+    public void count(II_Result r) {
+        r.r1 = first.get();
+        r.r2 = second.get();
+    }
+
+}
@@ -0,0 +1,49 @@
+package io.github.oldmanpushcart.jpromisor.jcstress;
+
+import io.github.oldmanpushcart.jpromisor.LeakDetector;
+import io.github.oldmanpushcart.jpromisor.ListenerRegistration;
+import io.github.oldmanpushcart.jpromisor.Promise;
+import io.github.oldmanpushcart.jpromisor.Promisor;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * 移除监听器与完成通知竞争：要么移除成功且监听器不执行，要么移除失败且监听器恰好执行一次
+ * <p>
+ * r1: 移除是否成功；r2: 监听器执行次数
+ * </p>
+ */
+@JCStressTest
+@Outcome(id = "1, 0", expect = ACCEPTABLE, desc = "removed before notification")
+@Outcome(id = "0, 1", expect = ACCEPTABLE, desc = "notified before removal")
+@Outcome(expect = FORBIDDEN, desc = "removal and invocation disagree")
+@State
+public class RemoveListenerRaceTest {
+
+    private static final Promisor promisor = new Promisor().leakDetector(LeakDetector.disabled);
+
+    private final Promise<Integer> promise = promisor.promise();
+    private final AtomicInteger invoked = new AtomicInteger();
+    private final ListenerRegistration registration = promise.register(future -> invoked.incrementAndGet());
+
+    @Actor
+    public void remove(II_Result r) {
+        r.r1 = registration.remove() ? 1 : 0;
+    }
+
+    @Actor
+    public void complete() {
+        promise.trySuccess(1);
+    }
+
+    @Arbiter
+    public void count(II_Result r) {
+        r.r2 = invoked.get();
+    }
+
+}
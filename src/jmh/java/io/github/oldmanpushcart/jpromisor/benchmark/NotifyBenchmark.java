@@ -0,0 +1,69 @@
+package io.github.oldmanpushcart.jpromisor.benchmark;
+
+import io.github.oldmanpushcart.jpromisor.FutureListener;
+import io.github.oldmanpushcart.jpromisor.LeakDetector;
+import io.github.oldmanpushcart.jpromisor.Promise;
+import io.github.oldmanpushcart.jpromisor.Promisor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监听器通知基准
+ * <p>
+ * {@link #registerAndComplete(Blackhole)}与{@link #register(Blackhole)}的
+ * {@code gc.alloc.rate.norm}之差即为完成与通知的分配量：
+ * 除完成结果本身外，内联监听器的通知不应再有任何分配
+ * </p>
+ * <p>
+ * {@link FieldUpdater}关闭多版本JAR后运行同样的基准，用于对比Java 8与JDK 11+两套核心实现
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotifyBenchmark {
+
+    @Param({"1", "4"})
+    private int listeners;
+
+    private final Promisor promisor = new Promisor().leakDetector(LeakDetector.disabled);
+
+    private final FutureListener<Object> onDone = future -> {
+    };
+
+    private final FutureListener.OnSuccess<Object> onSuccess = value -> {
+    };
+
+    private Promise<Object> newPromise() {
+        final Promise<Object> promise = promisor.promise();
+        for (int index = 0; index < listeners; index++) {
+            promise.appendListener((index & 1) == 0 ? onDone : onSuccess);
+        }
+        return promise;
+    }
+
+    @Benchmark
+    public void register(Blackhole bh) {
+        bh.consume(newPromise());
+    }
+
+    @Benchmark
+    public void registerAndComplete(Blackhole bh) {
+        final Promise<Object> promise = newPromise();
+        bh.consume(promise.trySuccess(promise));
+    }
+
+    /**
+     * 关闭多版本JAR，同样的基准跑Java 8的字段更新器实现，与上面的VarHandle实现对比
+     */
+    @Fork(value = 1, jvmArgsAppend = "-Djdk.util.jar.enableMultiRelease=false")
+    public static class FieldUpdater extends NotifyBenchmark {
+
+    }
+
+}
@@ -0,0 +1,128 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应等待策略
+ * <p>
+ * 先空转（JDK9+使用{@code Thread.onSpinWait}），再让出CPU，最后才阻塞；
+ * 空转时长根据最近观察到的完成延迟自动调整：
+ * 结果通常在空转预算内到达时，省去一次park/unpark；
+ * 结果通常来得很慢时，空转预算收缩到下限，避免白白消耗CPU
+ * </p>
+ *
+ * @since 1.2.0
+ */
+public class AdaptiveWaitStrategy implements WaitStrategy {
+
+    private static final MethodHandle onSpinWait = lookupOnSpinWait();
+
+    private final long maxSpinNanos;
+    private final long minSpinNanos;
+    private final int maxYields;
+
+    /*
+     * 完成延迟的指数移动平均值，多线程下允许丢失更新
+     */
+    private volatile long latencyNanos;
+
+    /**
+     * 自适应等待策略，最长空转20微秒
+     */
+    public AdaptiveWaitStrategy() {
+        this(20, TimeUnit.MICROSECONDS, 8);
+    }
+
+    /**
+     * 自适应等待策略
+     *
+     * @param maxSpin   最长空转时间
+     * @param unit      时间单位
+     * @param maxYields 阻塞前最多让出CPU的次数
+     */
+    public AdaptiveWaitStrategy(long maxSpin, TimeUnit unit, int maxYields) {
+        this.maxSpinNanos = unit.toNanos(maxSpin);
+        this.minSpinNanos = maxSpinNanos / 16;
+        this.maxYields = maxYields;
+        this.latencyNanos = maxSpinNanos / 2;
+    }
+
+    @Override
+    public boolean await(ListenableFuture<?> future, Blocker blocker, long timeoutNanos) throws InterruptedException {
+
+        final long start = System.nanoTime();
+        final long budget = Math.min(spinBudget(), timeoutNanos);
+
+        // 空转
+        while (!future.isDone() && System.nanoTime() - start < budget) {
+            spinWait();
+        }
+
+        // 让出CPU
+        for (int index = 0; index < maxYields && !future.isDone(); index++) {
+            Thread.yield();
+        }
+
+        // 阻塞
+        boolean done = future.isDone();
+        if (!done) {
+            if (timeoutNanos == Long.MAX_VALUE) {
+                done = blocker.block(Long.MAX_VALUE);
+            } else {
+                final long remaining = timeoutNanos - (System.nanoTime() - start);
+                done = remaining > 0 ? blocker.block(remaining) : future.isDone();
+            }
+        }
+
+        record(done ? System.nanoTime() - start : Long.MAX_VALUE);
+        return done;
+    }
+
+    /**
+     * 当前空转预算
+     *
+     * @return 空转预算（纳秒）
+     */
+    public long getSpinBudgetNanos() {
+        return spinBudget();
+    }
+
+    private long spinBudget() {
+        final long budget = latencyNanos * 2;
+        return budget <= maxSpinNanos
+                ? Math.max(budget, minSpinNanos)
+                : minSpinNanos;
+    }
+
+    private void record(long sampleNanos) {
+
+        // 限制单次采样的影响，慢请求偶发时也能较快恢复空转
+        final long sample = Math.min(sampleNanos, maxSpinNanos * 8);
+        final long latency = latencyNanos;
+        latencyNanos = latency + ((sample - latency) >> 3);
+
+    }
+
+    private static void spinWait() {
+        if (null != onSpinWait) {
+            try {
+                onSpinWait.invokeExact();
+            } catch (Throwable cause) {
+                // ignore
+            }
+        }
+    }
+
+    private static MethodHandle lookupOnSpinWait() {
+        try {
+            return MethodHandles.lookup().findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        } catch (Exception cause) {
+            // JDK8没有Thread.onSpinWait，退化为忙等
+            return null;
+        }
+    }
+
+}
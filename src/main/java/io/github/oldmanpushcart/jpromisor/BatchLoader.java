@@ -0,0 +1,295 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import io.github.oldmanpushcart.jpromisor.impl.MpscQueue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * 批量加载器
+ * <p>
+ * 在一个时间窗口内（或凑满一个批次后）将零散的{@link #load(Object)}请求合并为一次批量调用，
+ * 批量调用的结果再按KEY分发给每个调用者的{@link Promise}。
+ * 同一批次中重复的KEY只会加载一次；批量结果中缺失的KEY以{@code null}完成
+ * </p>
+ * <p>
+ * 凑满一批时在调用{@link #load(Object)}的线程上派发；窗口到期时定时器只负责触发，
+ * 批量加载函数在指定的执行器上运行，不会占用共享的定时器线程
+ * </p>
+ *
+ * @param <K> KEY类型
+ * @param <V> VALUE类型
+ * @since 1.2.0
+ */
+public class BatchLoader<K, V> {
+
+    private final Promisor promisor;
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final FutureFunction<List<K>, ListenableFuture<Map<K, V>>> fn;
+
+    /*
+     * 等待批量加载的请求
+     */
+    private final MpscQueue<Entry<K, V>> buffer = new MpscQueue<>();
+
+    /*
+     * 缓冲区中的请求数
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /*
+     * 是否已经登记了窗口定时器
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /*
+     * 是否正在派发，保证缓冲区只有一个消费者
+     */
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    /**
+     * 批量加载器，窗口到期的批次在{@link ForkJoinPool#commonPool()}上派发
+     *
+     * @param maxBatchSize 单批最大KEY数
+     * @param window       合并窗口
+     * @param unit         窗口单位
+     * @param fn           批量加载函数
+     */
+    public BatchLoader(int maxBatchSize, long window, TimeUnit unit,
+                       FutureFunction<List<K>, ListenableFuture<Map<K, V>>> fn) {
+        this(new Promisor(), ForkJoinPool.commonPool(), maxBatchSize, window, unit, fn);
+    }
+
+    /**
+     * 批量加载器，窗口到期的批次在{@link ForkJoinPool#commonPool()}上派发
+     *
+     * @param promisor     承诺者，用于创建调用者的Promise及提供定时器
+     * @param maxBatchSize 单批最大KEY数
+     * @param window       合并窗口
+     * @param unit         窗口单位
+     * @param fn           批量加载函数
+     */
+    public BatchLoader(Promisor promisor, int maxBatchSize, long window, TimeUnit unit,
+                       FutureFunction<List<K>, ListenableFuture<Map<K, V>>> fn) {
+        this(promisor, ForkJoinPool.commonPool(), maxBatchSize, window, unit, fn);
+    }
+
+    /**
+     * 批量加载器
+     *
+     * @param promisor     承诺者，用于创建调用者的Promise及提供定时器
+     * @param executor     窗口到期时派发批次的执行器
+     * @param maxBatchSize 单批最大KEY数
+     * @param window       合并窗口
+     * @param unit         窗口单位
+     * @param fn           批量加载函数
+     */
+    public BatchLoader(Promisor promisor, Executor executor, int maxBatchSize, long window, TimeUnit unit,
+                       FutureFunction<List<K>, ListenableFuture<Map<K, V>>> fn) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.promisor = promisor;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = unit.toNanos(window);
+        this.fn = fn;
+    }
+
+    /**
+     * 加载
+     *
+     * @param key KEY
+     * @return Future
+     */
+    public ListenableFuture<V> load(K key) {
+        final Promise<V> promise = promisor.promise();
+        buffer.offer(new Entry<>(key, promise));
+        if (size.incrementAndGet() >= maxBatchSize) {
+            dispatch();
+        } else {
+            schedule();
+        }
+        return promise;
+    }
+
+    /**
+     * 立即派发缓冲区中的所有请求，不再等待窗口结束
+     */
+    public void flush() {
+        dispatch();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            promisor.timer().schedule(() -> {
+                scheduled.set(false);
+                try {
+                    executor.execute(this::dispatch);
+                } catch (RuntimeException cause) {
+                    reject(cause);
+                }
+            }, windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void dispatch() {
+
+        // 批量调用同步失败时调用者的监听器在此执行，其抛出的异常在派发结束后再抛出
+        Throwable failure = null;
+
+        // 已有线程在派发，由它在结束后复查缓冲区
+        while (dispatching.compareAndSet(false, true)) {
+
+            int drained = 0;
+            try {
+                Entry<K, V> entry;
+                Map<K, List<Promise<V>>> batch = new LinkedHashMap<>();
+                while (null != (entry = buffer.poll())) {
+                    size.decrementAndGet();
+                    drained++;
+
+                    // 调用者已放弃等待，无需再加载
+                    if (!entry.promise.isDone()) {
+                        batch.computeIfAbsent(entry.key, k -> new ArrayList<>(1)).add(entry.promise);
+                    }
+
+                    if (batch.size() >= maxBatchSize) {
+                        failure = invoke(batch, failure);
+                        batch = new LinkedHashMap<>();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    failure = invoke(batch, failure);
+                }
+            } finally {
+                dispatching.set(false);
+            }
+
+            // 派发期间可能有新请求进入：凑满一批则继续派发，否则等待下一个窗口；
+            // 生产者尚未完成入队时本轮可能一无所获，同样交给下一个窗口，避免空转
+            final int remaining = size.get();
+            if (remaining == 0) {
+                break;
+            }
+            if (remaining < maxBatchSize || drained == 0) {
+                schedule();
+                break;
+            }
+
+        }
+
+        rethrow(failure);
+    }
+
+    /*
+     * 发起批量调用，返回同步完成调用者时累积的异常
+     */
+    private Throwable invoke(Map<K, List<Promise<V>>> batch, Throwable failure) {
+        final ListenableFuture<Map<K, V>> future;
+        try {
+            future = fn.apply(new ArrayList<>(batch.keySet()));
+        } catch (Exception cause) {
+            return completeAll(batch, failure, (key, promise) -> promise.tryException(cause));
+        }
+        if (null == future) {
+            final NullPointerException cause = new NullPointerException("batch future is null");
+            return completeAll(batch, failure, (key, promise) -> promise.tryException(cause));
+        }
+        future.onDone(f -> rethrow(completeAll(batch, null, (key, promise) -> {
+            if (f.isException()) {
+                promise.tryException(f.getException());
+            } else if (f.isCancelled()) {
+                promise.tryCancel();
+            } else {
+                final Map<K, V> values = f.getSuccess();
+                promise.trySuccess(null != values ? values.get(key) : null);
+            }
+        })));
+        return failure;
+    }
+
+    /*
+     * 逐个完成批次中的调用者
+     * 同一批次汇集了互不相关的调用者，任一调用者的监听器抛出异常都不能影响其余调用者：
+     * 第一个异常与已有异常合并后返回，之后的异常附加为被抑制异常
+     */
+    private Throwable completeAll(Map<K, List<Promise<V>>> batch, Throwable failure,
+                                  BiConsumer<K, Promise<V>> completion) {
+        Throwable first = failure;
+        for (Map.Entry<K, List<Promise<V>>> entry : batch.entrySet()) {
+            for (Promise<V> promise : entry.getValue()) {
+                try {
+                    completion.accept(entry.getKey(), promise);
+                } catch (RuntimeException | Error cause) {
+                    first = suppress(first, cause);
+                }
+            }
+        }
+        return first;
+    }
+
+    private static Throwable suppress(Throwable first, Throwable cause) {
+        if (null == first) {
+            return cause;
+        }
+        first.addSuppressed(cause);
+        return first;
+    }
+
+    private static void rethrow(Throwable failure) {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (null != failure) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    /*
+     * 执行器拒绝派发，缓冲区中的请求全部以拒绝原因失败；已有线程在派发时交由它处理
+     */
+    private void reject(Exception cause) {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        Throwable failure = null;
+        try {
+            Entry<K, V> entry;
+            while (null != (entry = buffer.poll())) {
+                size.decrementAndGet();
+                try {
+                    entry.promise.tryException(cause);
+                } catch (RuntimeException | Error listenerCause) {
+                    failure = suppress(failure, listenerCause);
+                }
+            }
+        } finally {
+            dispatching.set(false);
+        }
+        rethrow(failure);
+    }
+
+    private static class Entry<K, V> {
+
+        private final K key;
+        private final Promise<V> promise;
+
+        private Entry(K key, Promise<V> promise) {
+            this.key = key;
+            this.promise = promise;
+        }
+
+    }
+
+}
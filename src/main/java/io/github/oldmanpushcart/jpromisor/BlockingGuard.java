@@ -0,0 +1,129 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 阻塞调用守卫
+ * <p>
+ * 标记某些线程（如IO线程、事件循环线程）不允许阻塞，
+ * 当这些线程在未完成的Future上调用{@code get()}、{@code sync()}或{@code await()}时按{@link Action}处理。
+ * 仅在Future尚未完成时才会检查，已完成的Future不受影响
+ * </p>
+ *
+ * @see Promisor#blockingGuard(BlockingGuard)
+ * @since 1.2.0
+ */
+public class BlockingGuard {
+
+    private static final Logger logger = Logger.getLogger(BlockingGuard.class.getName());
+
+    private final Predicate<Thread> nonBlocking;
+    private final Action action;
+    private final long logIntervalNanos;
+
+    private final LongAdder violations = new LongAdder();
+    private final AtomicLong lastLoggedNanos = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+
+    /**
+     * 阻塞调用守卫
+     *
+     * @param nonBlocking 判断线程是否不允许阻塞
+     * @param action      违规处理方式
+     */
+    public BlockingGuard(Predicate<Thread> nonBlocking, Action action) {
+        this(nonBlocking, action, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 阻塞调用守卫
+     *
+     * @param nonBlocking 判断线程是否不允许阻塞
+     * @param action      违规处理方式
+     * @param logInterval {@link Action#LOG}时两次日志的最小间隔
+     * @param unit        间隔单位
+     */
+    public BlockingGuard(Predicate<Thread> nonBlocking, Action action, long logInterval, TimeUnit unit) {
+        this.nonBlocking = nonBlocking;
+        this.action = action;
+        this.logIntervalNanos = unit.toNanos(logInterval);
+    }
+
+    /**
+     * 指定线程组（含子线程组）中的线程不允许阻塞
+     *
+     * @param group  线程组
+     * @param action 违规处理方式
+     * @return 阻塞调用守卫
+     */
+    public static BlockingGuard threadGroup(ThreadGroup group, Action action) {
+        return new BlockingGuard(thread -> group.parentOf(thread.getThreadGroup()), action);
+    }
+
+    /**
+     * 检查当前线程能否阻塞等待
+     *
+     * @throws IllegalStateException 当前线程不允许阻塞且处理方式为{@link Action#THROW}
+     */
+    public void check() {
+        final Thread thread = Thread.currentThread();
+        if (!nonBlocking.test(thread)) {
+            return;
+        }
+        violations.increment();
+        switch (action) {
+            case THROW:
+                throw new IllegalStateException("blocking wait on an incomplete future is not allowed in thread: " + thread.getName());
+            case LOG:
+                log(thread);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void log(Thread thread) {
+        final long now = System.nanoTime();
+        final long last = lastLoggedNanos.get();
+        if (now - last >= logIntervalNanos && lastLoggedNanos.compareAndSet(last, now)) {
+            logger.log(Level.WARNING, "blocking wait on an incomplete future in thread: " + thread.getName(),
+                    new Throwable("blocking call at"));
+        }
+    }
+
+    /**
+     * 违规次数
+     *
+     * @return 违规次数
+     */
+    public long getViolations() {
+        return violations.sum();
+    }
+
+    /**
+     * 违规处理方式
+     */
+    public enum Action {
+
+        /**
+         * 抛出{@link IllegalStateException}
+         */
+        THROW,
+
+        /**
+         * 按间隔限流打印带堆栈的日志，并继续阻塞
+         */
+        LOG,
+
+        /**
+         * 只记录违规次数，并继续阻塞
+         */
+        RECORD
+
+    }
+
+}
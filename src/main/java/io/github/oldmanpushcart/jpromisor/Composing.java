@@ -0,0 +1,43 @@
+package io.github.oldmanpushcart.jpromisor;
+
+/**
+ * 异步接力的默认实现
+ * <p>
+ * 只依赖公开接口：接力函数返回的Future完成后，经{@link ListenableFuture#assign(Promise)}转交给接力Future；
+ * 接力函数返回{@code null}时，接力Future以{@link NullPointerException}失败
+ * </p>
+ *
+ * @param <T> 类型
+ */
+class Composing<T> implements FutureListener<ListenableFuture<T>> {
+
+    /*
+     * 默认配置的承诺者，只用于创建接力Future
+     */
+    private static final Promisor promisor = new Promisor();
+
+    private final Promise<T> promise = promisor.promise();
+
+    /**
+     * 开始接力
+     *
+     * @param upstream 接力函数的结果
+     * @return 接力Future
+     */
+    ListenableFuture<T> start(ListenableFuture<ListenableFuture<T>> upstream) {
+        upstream.appendListener(this);
+        return promise;
+    }
+
+    @Override
+    public void onDone(ListenableFuture<ListenableFuture<T>> future) {
+        if (!future.isSuccess()) {
+            future.assignFail(promise);
+        } else if (null == future.getSuccess()) {
+            promise.tryException(new NullPointerException("composed future is null"));
+        } else {
+            future.getSuccess().assign(promise);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 截止时间
+ * <p>
+ * 截止时间挂在{@link Promise}上，并随{@link ListenableFuture#then(FutureFunction, FutureFunction)}等接力传递给后续的Future；
+ * 到期后接力函数和履约函数将不再执行，Future直接以{@link java.util.concurrent.TimeoutException}失败。
+ * </p>
+ * <p>
+ * 履约函数或接力函数执行期间，可通过{@link #current()}获取当前截止时间，读取剩余预算；
+ * 期间通过{@link Promisor}创建的Promise也会自动继承当前截止时间
+ * </p>
+ *
+ * @since 1.2.0
+ */
+public final class Deadline implements Comparable<Deadline> {
+
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 从现在起经过指定时长后到期
+     *
+     * @param duration 时长
+     * @param unit     时长单位
+     * @return 截止时间
+     */
+    public static Deadline after(long duration, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(duration));
+    }
+
+    /**
+     * 是否已经到期
+     *
+     * @return TRUE | FALSE
+     */
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * 剩余时间
+     *
+     * @param unit 时间单位
+     * @return 剩余时间，到期后返回0
+     */
+    public long timeRemaining(TimeUnit unit) {
+        final long remaining = deadlineNanos - System.nanoTime();
+        return remaining > 0 ? unit.convert(remaining, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * 取两个截止时间中较早的一个
+     *
+     * @param other 另一个截止时间，可为空
+     * @return 较早的截止时间
+     */
+    public Deadline minimum(Deadline other) {
+        return null == other || compareTo(other) <= 0 ? this : other;
+    }
+
+    @Override
+    public int compareTo(Deadline other) {
+        return Long.signum(deadlineNanos - other.deadlineNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[remaining=" + timeRemaining(TimeUnit.MILLISECONDS) + "ms]";
+    }
+
+    /**
+     * 当前线程正在执行的函数所属的截止时间
+     *
+     * @return 截止时间，没有时返回{@code null}
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    /**
+     * 设置当前线程的截止时间
+     * <p>
+     * 执行结束后需要将返回值再次{@code attach}以恢复原状
+     * </p>
+     *
+     * @param deadline 截止时间，可为空
+     * @return 原截止时间
+     */
+    public static Deadline attach(Deadline deadline) {
+        final Deadline previous = current.get();
+        if (null == deadline) {
+            current.remove();
+        } else {
+            current.set(deadline);
+        }
+        return previous;
+    }
+
+}
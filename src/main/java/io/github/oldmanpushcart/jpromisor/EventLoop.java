@@ -0,0 +1,186 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import io.github.oldmanpushcart.jpromisor.impl.MpscQueue;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 事件循环
+ * <p>
+ * 单线程执行器，任务经无锁的多生产者单消费者队列提交，由循环线程成批取出执行；
+ * 队列为空时循环线程挂起，只有在其确实挂起时提交任务才需要唤醒，避免多余的{@code unpark}。
+ * </p>
+ * <p>
+ * 作为监听器的执行器时，若通知恰好发生在循环线程上（{@link #inEventLoop()}），监听器直接执行而不再入队
+ * </p>
+ *
+ * @see EventLoopGroup
+ * @since 1.2.0
+ */
+public class EventLoop implements Executor, AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(EventLoop.class.getName());
+
+    private static final AtomicInteger sequencer = new AtomicInteger();
+
+    /*
+     * 每批最多执行的任务数，批与批之间检查关闭标记
+     */
+    private static final int maxBatchSize = 1024;
+
+    /*
+     * 状态的最高位为关闭标记
+     */
+    private static final int shutdownBit = Integer.MIN_VALUE;
+
+    private final MpscQueue<Runnable> queue = new MpscQueue<>();
+    private final Thread thread;
+
+    /*
+     * 循环线程已（或即将）挂起，提交任务时需要唤醒
+     */
+    private final AtomicBoolean parked = new AtomicBoolean();
+
+    /*
+     * 关闭标记及正在提交（已通过检查、尚未完成入队）的线程数
+     * 循环线程退出前等待提交数归零，保证关闭前通过检查的任务一定会被执行
+     */
+    private final AtomicInteger state = new AtomicInteger();
+
+    /**
+     * 事件循环，使用名为{@code jpromisor-eventloop-N}的守护线程
+     */
+    public EventLoop() {
+        this(runnable -> {
+            final Thread thread = new Thread(runnable, "jpromisor-eventloop-" + sequencer.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 事件循环
+     *
+     * @param factory 循环线程工厂
+     */
+    public EventLoop(ThreadFactory factory) {
+        this.thread = factory.newThread(this::loop);
+        this.thread.start();
+    }
+
+    /**
+     * 当前线程是否为循环线程
+     *
+     * @return TRUE | FALSE
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (state.getAndIncrement() < 0) {
+            state.decrementAndGet();
+            throw new RejectedExecutionException("event loop is shutdown");
+        }
+        try {
+            queue.offer(task);
+        } finally {
+            state.decrementAndGet();
+        }
+        if (!inEventLoop()) {
+            wakeup();
+        }
+    }
+
+    private void wakeup() {
+        if (parked.get() && parked.compareAndSet(true, false)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * 是否已关闭
+     *
+     * @return TRUE | FALSE
+     */
+    public boolean isShutdown() {
+        return state.get() < 0;
+    }
+
+    /**
+     * 是否已终止：已关闭且循环线程已退出
+     *
+     * @return TRUE | FALSE
+     */
+    public boolean isTerminated() {
+        return isShutdown() && !thread.isAlive();
+    }
+
+    /**
+     * 关闭事件循环，不再接受新任务，已提交的任务执行完毕后循环线程退出
+     */
+    public void shutdown() {
+        state.getAndUpdate(current -> current | shutdownBit);
+        parked.set(false);
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    private void loop() {
+        while (true) {
+
+            if (drain() > 0) {
+                continue;
+            }
+
+            if (isShutdown()) {
+                break;
+            }
+
+            // 先声明挂起再复查队列，与提交方的先入队再检查挂起标记配对，保证不会丢失唤醒
+            parked.set(true);
+            if (queue.isEmpty() && !isShutdown()) {
+                LockSupport.park(this);
+            }
+            parked.set(false);
+
+        }
+
+        // 等待关闭前已通过检查的提交完成入队，再将任务全部执行完毕
+        while (state.get() != shutdownBit || !queue.isEmpty()) {
+            if (drain() == 0) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /*
+     * 成批取出并执行任务
+     */
+    private int drain() {
+        int count = 0;
+        Runnable task;
+        while (count < maxBatchSize && null != (task = queue.poll())) {
+            count++;
+            try {
+                task.run();
+            } catch (Throwable cause) {
+                logger.log(Level.WARNING, "task failed in event loop: " + thread.getName(), cause);
+            }
+        }
+        return count;
+    }
+
+}
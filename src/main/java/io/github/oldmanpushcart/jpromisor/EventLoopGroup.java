@@ -0,0 +1,94 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 事件循环组
+ * <p>
+ * 持有一组{@link EventLoop}，通过{@link #next()}轮询分配；
+ * 一条接力链固定使用同一个事件循环时，链上的监听器都能在循环线程上直接执行
+ * </p>
+ *
+ * <pre>
+ * final EventLoop loop = group.next();
+ * promisor.fulfill(loop, () -> load()).success(loop, v -> parse(v));
+ * </pre>
+ *
+ * @since 1.2.0
+ */
+public class EventLoopGroup implements Executor, AutoCloseable {
+
+    private final EventLoop[] loops;
+    private final AtomicInteger index = new AtomicInteger();
+
+    /**
+     * 事件循环组，事件循环数量与处理器数量一致
+     */
+    public EventLoopGroup() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 事件循环组
+     *
+     * @param size 事件循环数量
+     */
+    public EventLoopGroup(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        this.loops = new EventLoop[size];
+        for (int i = 0; i < size; i++) {
+            loops[i] = new EventLoop();
+        }
+    }
+
+    /**
+     * 轮询选取下一个事件循环
+     *
+     * @return 事件循环
+     */
+    public EventLoop next() {
+        return loops[Math.abs(index.getAndIncrement() % loops.length)];
+    }
+
+    /**
+     * 当前线程是否为组内某个事件循环的循环线程
+     *
+     * @return TRUE | FALSE
+     */
+    public boolean inEventLoop() {
+        for (final EventLoop loop : loops) {
+            if (loop.inEventLoop()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 提交到轮询选取的事件循环
+     *
+     * @param task 任务
+     */
+    @Override
+    public void execute(Runnable task) {
+        next().execute(task);
+    }
+
+    /**
+     * 关闭组内所有事件循环
+     */
+    public void shutdown() {
+        for (final EventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+}
@@ -0,0 +1,42 @@
+package io.github.oldmanpushcart.jpromisor;
+
+/**
+ * 轻量失败
+ * <p>
+ * 不填充堆栈、不记录被抑制异常的异常，创建开销与普通对象相当，
+ * 适用于缓存未命中、校验不通过等预期内且频繁发生的失败；
+ * 实例不可变，可作为常量共享。可直接用于{@link Promise#tryException(Exception)}，
+ * 也能被{@link ListenableFuture#exception(FutureFunction)}正常接住
+ * </p>
+ *
+ * <pre>
+ * private static final Failure notFound = new Failure("not found");
+ * promise.tryException(notFound);
+ * </pre>
+ *
+ * @since 1.2.0
+ */
+public class Failure extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 轻量失败
+     *
+     * @param message 失败信息
+     */
+    public Failure(String message) {
+        this(message, null);
+    }
+
+    /**
+     * 轻量失败
+     *
+     * @param message 失败信息
+     * @param cause   原因
+     */
+    public Failure(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+
+}
@@ -0,0 +1,65 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对冲请求统计
+ * <p>
+ * 通过{@link #getHedgeWins()}与{@link #getHedges()}的比值评估对冲延迟是否合适：
+ * 比值过低说明备份请求大多白白浪费，延迟可以调大
+ * </p>
+ *
+ * @see Promisor#hedge(long, java.util.concurrent.TimeUnit, int, FutureFunction.FutureCallable)
+ * @since 1.2.0
+ */
+public class HedgeMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    void onRequest() {
+        requests.increment();
+    }
+
+    void onHedge() {
+        hedges.increment();
+    }
+
+    void onHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    /**
+     * 对冲请求总数
+     *
+     * @return 请求数
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * 发起的备份请求数
+     *
+     * @return 备份请求数
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * 由备份请求胜出的次数
+     *
+     * @return 胜出次数
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeMetrics[requests=" + getRequests() + ", hedges=" + getHedges() + ", hedgeWins=" + getHedgeWins() + "]";
+    }
+
+}
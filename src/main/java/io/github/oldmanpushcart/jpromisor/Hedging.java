@@ -0,0 +1,184 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import io.github.oldmanpushcart.jpromisor.FutureFunction.FutureCallable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对冲请求
+ * <p>
+ * 主请求在延迟内未完成则发起备份请求，任意一次请求成功即完成结果，并取消其余请求；
+ * 某次请求失败时立即发起下一次请求，全部请求失败后以最后一次失败结束。
+ * 定时器只负责触发，备份请求在指定的执行器上发起
+ * </p>
+ *
+ * @param <V> 类型
+ */
+class Hedging<V> {
+
+    private final Promisor promisor;
+    private final Promise<V> promise;
+    private final Executor executor;
+    private final long delayNanos;
+    private final int maxAttempts;
+    private final FutureCallable<ListenableFuture<V>> fn;
+    private final HedgeMetrics metrics;
+
+    /*
+     * 已发起的请求，受this保护
+     */
+    private final List<ListenableFuture<V>> attempts = new ArrayList<>();
+
+    /*
+     * 未完成的请求数，受this保护
+     */
+    private int outstanding;
+
+    /*
+     * 下一次备份请求的定时器，受this保护
+     */
+    private ScheduledFuture<?> scheduled;
+
+    /*
+     * 执行器已拒绝发起备份请求，不再发起新的请求，受this保护
+     */
+    private boolean rejected;
+
+    Hedging(Promisor promisor, Executor executor, long delay, TimeUnit unit, int maxAttempts,
+            FutureCallable<ListenableFuture<V>> fn, HedgeMetrics metrics) {
+        this.promisor = promisor;
+        this.promise = promisor.promise();
+        this.executor = executor;
+        this.delayNanos = unit.toNanos(delay);
+        this.maxAttempts = maxAttempts;
+        this.fn = fn;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 开始对冲
+     *
+     * @return 结果
+     */
+    ListenableFuture<V> start() {
+        metrics.onRequest();
+        promise.onDone(future -> cancelAll());
+        attempt();
+        return promise;
+    }
+
+    private void attempt() {
+
+        final int index;
+        synchronized (this) {
+            if (promise.isDone() || rejected || attempts.size() >= maxAttempts) {
+                return;
+            }
+            index = attempts.size();
+            outstanding++;
+            scheduled = null;
+        }
+
+        if (index > 0) {
+            metrics.onHedge();
+        }
+
+        ListenableFuture<V> future;
+        try {
+            future = fn.call();
+            if (null == future) {
+                future = promisor.failed(new NullPointerException("hedged future is null"));
+            }
+        } catch (Exception cause) {
+            future = promisor.failed(cause);
+        }
+
+        final boolean lost;
+        synchronized (this) {
+            attempts.add(future);
+            lost = promise.isDone();
+            if (attempts.size() < maxAttempts && !lost) {
+                scheduled = promisor.timer().schedule(this::launch, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // 发起期间结果已完成，cancelAll()可能没有看到本次请求，需自行取消
+        if (lost) {
+            future.cancel(false);
+        }
+
+        future.onDone(f -> onAttemptDone(index, f));
+
+    }
+
+    private void onAttemptDone(int index, ListenableFuture<V> future) {
+
+        if (future.isSuccess()) {
+            if (promise.trySuccess(future.getSuccess()) && index > 0) {
+                metrics.onHedgeWin();
+            }
+            return;
+        }
+
+        final boolean exhausted;
+        boolean next = false;
+        synchronized (this) {
+            outstanding--;
+            exhausted = outstanding == 0 && (attempts.size() >= maxAttempts || rejected);
+
+            // 失败后不再等待延迟，立即发起下一次请求
+            if (!exhausted && null != scheduled && scheduled.cancel(false)) {
+                scheduled = null;
+                next = true;
+            }
+        }
+
+        if (next) {
+            launch();
+        }
+
+        if (exhausted) {
+            if (future.isCancelled()) {
+                promise.tryCancel();
+            } else {
+                promise.tryException(future.getException());
+            }
+        }
+
+    }
+
+    /*
+     * 在执行器上发起下一次请求，执行器拒绝时不再发起新的请求，没有未完成的请求时以拒绝原因结束
+     */
+    private void launch() {
+        try {
+            executor.execute(this::attempt);
+        } catch (RuntimeException cause) {
+            final boolean idle;
+            synchronized (this) {
+                rejected = true;
+                idle = outstanding == 0;
+            }
+            if (idle) {
+                promise.tryException(cause);
+            }
+        }
+    }
+
+    private void cancelAll() {
+        final List<ListenableFuture<V>> targets;
+        synchronized (this) {
+            if (null != scheduled) {
+                scheduled.cancel(false);
+                scheduled = null;
+            }
+            targets = new ArrayList<>(attempts);
+        }
+        targets.forEach(attempt -> attempt.cancel(false));
+    }
+
+}
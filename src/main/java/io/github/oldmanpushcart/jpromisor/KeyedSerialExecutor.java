@@ -0,0 +1,258 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import io.github.oldmanpushcart.jpromisor.impl.MpscQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 按KEY串行的执行器
+ * <p>
+ * 同一个KEY的任务按提交顺序逐个执行，不同KEY的任务在底层执行器上并行执行；
+ * 每个KEY持有一个无锁队列，同一时刻最多只有一个排空任务在底层执行器上运行，
+ * 队列排空后KEY自动移除，空闲KEY不占用内存。
+ * 底层执行器拒绝排空任务时移除该KEY，后续提交会重新尝试：提交方收到拒绝异常，
+ * 该KEY下其余已排队的任务交给{@link RejectionHandler}，默认在当前线程上按顺序执行，不会被静默丢弃
+ * </p>
+ *
+ * <pre>
+ * final KeyedSerialExecutor&lt;String&gt; serial = new KeyedSerialExecutor&lt;&gt;(executor);
+ * promisor.fulfill(serial.serial(accountId), () -> debit(accountId, amount));
+ * </pre>
+ *
+ * @param <K> KEY类型
+ * @see Promisor#serial(Executor, Object)
+ * @since 1.2.0
+ */
+public class KeyedSerialExecutor<K> {
+
+    private static final Logger logger = Logger.getLogger(KeyedSerialExecutor.class.getName());
+
+    /*
+     * 排空任务每次最多执行的任务数，超过后重新提交到底层执行器，避免长期独占线程
+     */
+    private static final int maxBatchSize = 64;
+
+    private final Executor executor;
+    private final RejectionHandler<K> rejectionHandler;
+    private final ConcurrentMap<K, Serial> serials = new ConcurrentHashMap<>();
+
+    /**
+     * 按KEY串行的执行器，被拒绝的已排队任务在当前线程上执行
+     *
+     * @param executor 底层执行器
+     */
+    public KeyedSerialExecutor(Executor executor) {
+        this(executor, (key, task, cause) -> task.run());
+    }
+
+    /**
+     * 按KEY串行的执行器
+     *
+     * @param executor         底层执行器
+     * @param rejectionHandler 底层执行器拒绝时，已排队任务的处理策略
+     */
+    public KeyedSerialExecutor(Executor executor, RejectionHandler<K> rejectionHandler) {
+        this.executor = executor;
+        this.rejectionHandler = rejectionHandler;
+    }
+
+    /**
+     * 指定KEY的串行执行器，可作为{@code then}、{@code appendListener}、{@code fulfill}等的执行器
+     *
+     * @param key KEY
+     * @return 执行器
+     */
+    public Executor serial(K key) {
+        return task -> execute(key, task);
+    }
+
+    /**
+     * 提交任务到指定KEY
+     *
+     * @param key  KEY
+     * @param task 任务
+     */
+    public void execute(K key, Runnable task) {
+        while (true) {
+            final Serial serial = serials.computeIfAbsent(key, Serial::new);
+            final int previous = serial.enter();
+
+            // 该KEY刚被移除，协助移除后重试
+            if (previous < 0) {
+                serials.remove(key, serial);
+                continue;
+            }
+
+            serial.queue.offer(task);
+            if (previous == 0) {
+                try {
+                    executor.execute(serial);
+                } catch (RuntimeException cause) {
+
+                    // 回滚：移除该KEY，后续提交重新创建队列并再次尝试提交排空任务；
+                    // 提交方自己的任务以异常告知，其余提交方已排队的任务交给拒绝策略
+                    final List<Runnable> tasks = serial.abandon();
+                    tasks.remove(task);
+                    serial.reject(tasks, cause);
+                    throw cause;
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * 有未完成任务的KEY数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return serials.size();
+    }
+
+    /**
+     * 单个KEY的串行队列
+     */
+    private final class Serial implements Runnable {
+
+        private final K key;
+        private final MpscQueue<Runnable> queue = new MpscQueue<>();
+
+        /*
+         * 已提交未执行完的任务数，-1表示已移除
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private Serial(K key) {
+            this.key = key;
+        }
+
+        /*
+         * 登记一个任务
+         * 返回登记前的任务数，为0时由调用方提交排空任务；小于0表示已移除，不能再登记
+         */
+        private int enter() {
+            while (true) {
+                final int current = pending.get();
+                if (current < 0) {
+                    return current;
+                }
+                if (pending.compareAndSet(current, current + 1)) {
+                    return current;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int count = 0;
+            while (true) {
+                final Runnable task = queue.poll();
+
+                // 任务已登记但提交方尚未完成入队，重新提交排空任务而不是原地等待，让出底层执行器的线程
+                if (null == task) {
+                    resubmit();
+                    return;
+                }
+
+                try {
+                    task.run();
+                } catch (Throwable cause) {
+                    logger.log(Level.WARNING, "task failed in serial executor, key=" + key, cause);
+                }
+
+                // 队列已排空，尝试移除；移除失败说明有新任务登记，其提交方已负责提交新的排空任务
+                if (pending.decrementAndGet() == 0) {
+                    if (pending.compareAndSet(0, -1)) {
+                        serials.remove(key, this);
+                    }
+                    return;
+                }
+
+                // 让出底层执行器的线程
+                if (++count >= maxBatchSize) {
+                    resubmit();
+                    return;
+                }
+            }
+        }
+
+        /*
+         * 重新提交排空任务，底层执行器拒绝时移除该KEY，已排队的任务交给拒绝策略
+         */
+        private void resubmit() {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException cause) {
+                reject(abandon(), cause);
+            }
+        }
+
+        /*
+         * 标记为已移除并从KEY映射中摘除，取出此前登记的全部任务
+         * 之后的提交会看到已移除标记并改用新的队列；已登记的提交方可能尚未完成入队，需等待其入队
+         */
+        private List<Runnable> abandon() {
+            final int registered = pending.getAndSet(-1);
+            serials.remove(key, this);
+            final List<Runnable> tasks = new ArrayList<>(registered);
+            while (tasks.size() < registered) {
+                final Runnable task = queue.poll();
+                if (null == task) {
+                    Thread.yield();
+                } else {
+                    tasks.add(task);
+                }
+            }
+            return tasks;
+        }
+
+        /*
+         * 按提交顺序将被拒绝的任务交给拒绝策略，任一任务失败不影响其余任务
+         */
+        private void reject(List<Runnable> tasks, RuntimeException cause) {
+            if (tasks.isEmpty()) {
+                return;
+            }
+            logger.log(Level.WARNING, "serial executor rejected, key=" + key + ", " + tasks.size() + " queued task(s) handed to rejection handler", cause);
+            for (final Runnable task : tasks) {
+                try {
+                    rejectionHandler.onRejected(key, task, cause);
+                } catch (Throwable failure) {
+                    logger.log(Level.WARNING, "rejected task failed in serial executor, key=" + key, failure);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * 拒绝策略
+     * <p>
+     * 底层执行器拒绝排空任务时，该KEY下其余提交方已排队的任务按提交顺序逐个交给拒绝策略
+     * </p>
+     *
+     * @param <K> KEY类型
+     */
+    @FunctionalInterface
+    public interface RejectionHandler<K> {
+
+        /**
+         * 任务被拒绝
+         *
+         * @param key   KEY
+         * @param task  被拒绝的任务
+         * @param cause 底层执行器的拒绝原因
+         */
+        void onRejected(K key, Runnable task, RuntimeException cause);
+
+    }
+
+}
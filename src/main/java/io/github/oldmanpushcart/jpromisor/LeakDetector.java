@@ -0,0 +1,138 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import java.util.logging.Logger;
+
+/**
+ * Promise泄漏检测器
+ * <p>
+ * 对新建的Promise按级别抽样跟踪，被跟踪的Promise若已注册了监听器或有线程在等待，
+ * 却在从未完成的情况下被GC回收，则由后台守护线程上报其创建时的堆栈。
+ * 每个被跟踪的Promise都要采集一次堆栈，因此默认关闭，需要排查时再开启
+ * </p>
+ * <p>
+ * 默认级别可通过系统属性调整：
+ * <ul>
+ * <li>{@code jpromisor.leakDetection.level}：{@code DISABLED} | {@code SAMPLED} | {@code PARANOID}，默认{@code DISABLED}</li>
+ * <li>{@code jpromisor.leakDetection.samplingInterval}：抽样间隔，默认{@code 128}</li>
+ * </ul>
+ * </p>
+ *
+ * @since 1.2.0
+ */
+public class LeakDetector {
+
+    private static final Logger logger = Logger.getLogger(LeakDetector.class.getName());
+
+    /**
+     * 默认泄漏检测器
+     */
+    public static final LeakDetector defaults = new LeakDetector(
+            Level.valueOf(System.getProperty("jpromisor.leakDetection.level", Level.DISABLED.name())),
+            Integer.getInteger("jpromisor.leakDetection.samplingInterval", 128),
+            LeakDetector::log
+    );
+
+    /**
+     * 关闭的泄漏检测器
+     */
+    public static final LeakDetector disabled = new LeakDetector(Level.DISABLED);
+
+    private final Level level;
+    private final int samplingInterval;
+    private final Reporter reporter;
+
+    /**
+     * 泄漏检测器
+     *
+     * @param level 检测级别
+     */
+    public LeakDetector(Level level) {
+        this(level, 128, LeakDetector::log);
+    }
+
+    /**
+     * 泄漏检测器
+     *
+     * @param level            检测级别
+     * @param samplingInterval 抽样间隔，{@link Level#SAMPLED}级别下每{@code samplingInterval}个Promise跟踪一个
+     * @param reporter         泄漏上报，在后台守护线程上调用
+     */
+    public LeakDetector(Level level, int samplingInterval, Reporter reporter) {
+        if (samplingInterval <= 0) {
+            throw new IllegalArgumentException("samplingInterval must be positive");
+        }
+        this.level = level;
+        this.samplingInterval = samplingInterval;
+        this.reporter = reporter;
+    }
+
+    /**
+     * 检测级别
+     *
+     * @return 检测级别
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * 抽样间隔
+     *
+     * @return 抽样间隔
+     */
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * 泄漏上报
+     *
+     * @return 泄漏上报
+     */
+    public Reporter getReporter() {
+        return reporter;
+    }
+
+    private static void log(Throwable creation) {
+        logger.log(java.util.logging.Level.SEVERE, "LEAK: Promise was garbage-collected before completion while listeners or waiters were still pending. "
+                + "Make sure every Promise is eventually completed.", creation);
+    }
+
+    /**
+     * 检测级别
+     */
+    public enum Level {
+
+        /**
+         * 关闭
+         */
+        DISABLED,
+
+        /**
+         * 抽样跟踪
+         */
+        SAMPLED,
+
+        /**
+         * 跟踪全部Promise，仅用于调试
+         */
+        PARANOID
+
+    }
+
+    /**
+     * 泄漏上报
+     */
+    @FunctionalInterface
+    public interface Reporter {
+
+        /**
+         * 发现泄漏
+         *
+         * @param creation 泄漏Promise的创建堆栈
+         */
+        void onLeak(Throwable creation);
+
+    }
+
+}
@@ -4,6 +4,7 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Future
@@ -116,6 +117,16 @@ public interface ListenableFuture<V> extends Future<V> {
      */
     V getSuccess();
 
+    /**
+     * 获取截止时间
+     *
+     * @return 截止时间，没有时返回{@code null}
+     * @since 1.2.0
+     */
+    default Deadline getDeadline() {
+        return null;
+    }
+
     /**
      * 将当前Future取消
      *
@@ -319,12 +330,57 @@ public interface ListenableFuture<V> extends Future<V> {
 
     /**
      * 移除监听器
+     * <p>
+     * 按监听器实例（{@code ==}）匹配，需遍历全部监听器；频繁注册和移除时应使用{@link #register(Executor, FutureListener)}
+     * </p>
      *
      * @param listener 监听器
      * @return this
      */
     ListenableFuture<V> removeListener(FutureListener<V> listener);
 
+    /**
+     * 注册监听器，返回可用于移除本次注册的凭证
+     * <p>
+     * {@link #isDone()} == true 的时候触发
+     * </p>
+     *
+     * @param listener 监听器
+     * @return 注册凭证
+     * @since 1.2.0
+     */
+    default ListenerRegistration register(FutureListener<V> listener) {
+        return register(Runnable::run, listener);
+    }
+
+    /**
+     * 注册监听器，监听动作由指定执行器完成，返回可用于移除本次注册的凭证
+     * <p>
+     * {@link #isDone()} == true 的时候触发
+     * </p>
+     *
+     * <p>
+     * 默认实现基于{@link #appendListener(Executor, FutureListener)}及{@link #removeListener(FutureListener)}，
+     * 移除按监听器实例匹配
+     * </p>
+     *
+     * @param executor 执行器
+     * @param listener 监听器
+     * @return 注册凭证
+     * @since 1.2.0
+     */
+    default ListenerRegistration register(Executor executor, FutureListener<V> listener) {
+        appendListener(executor, listener);
+        final AtomicBoolean registered = new AtomicBoolean(true);
+        return () -> {
+            if (isDone() || !registered.compareAndSet(true, false)) {
+                return false;
+            }
+            removeListener(listener);
+            return true;
+        };
+    }
+
     /**
      * 成功接力
      *
@@ -382,6 +438,72 @@ public interface ListenableFuture<V> extends Future<V> {
      */
     <T> ListenableFuture<T> then(Executor executor, FutureFunction<V, T> success, FutureFunction<Exception, T> exception);
 
+    /**
+     * 异步成功接力
+     * <p>
+     * 接力函数返回的Future完成后，其结果直接转交给接力Future，不会产生嵌套的Future
+     * </p>
+     *
+     * @param fn  接力函数
+     * @param <T> 类型
+     * @return 接力Future
+     * @since 1.2.0
+     */
+    default <T> ListenableFuture<T> flatSuccess(FutureFunction<V, ListenableFuture<T>> fn) {
+        return compose(fn, FutureFunction.throwing());
+    }
+
+    /**
+     * 异步成功接力
+     *
+     * @param executor 执行器
+     * @param fn       接力函数
+     * @param <T>      类型
+     * @return 接力Future
+     * @since 1.2.0
+     */
+    default <T> ListenableFuture<T> flatSuccess(Executor executor, FutureFunction<V, ListenableFuture<T>> fn) {
+        return compose(executor, fn, FutureFunction.throwing());
+    }
+
+    /**
+     * 异步接力
+     * <p>
+     * 接力函数返回的Future完成后，其结果直接转交给接力Future，不会产生嵌套的Future；
+     * 接力函数返回{@code null}时，接力Future以{@link NullPointerException}失败
+     * </p>
+     *
+     * @param success   成功函数
+     * @param exception 异常函数
+     * @param <T>       类型
+     * @return 接力Future
+     * @since 1.2.0
+     */
+    default <T> ListenableFuture<T> compose(FutureFunction<V, ListenableFuture<T>> success,
+                                            FutureFunction<Exception, ListenableFuture<T>> exception) {
+        return compose(Runnable::run, success, exception);
+    }
+
+    /**
+     * 异步接力
+     * <p>
+     * 默认实现基于{@link #then(Executor, FutureFunction, FutureFunction)}及{@link #assign(Promise)}，
+     * 内层Future完成后多一跳
+     * </p>
+     *
+     * @param executor  执行器
+     * @param success   成功函数
+     * @param exception 异常函数
+     * @param <T>       类型
+     * @return 接力Future
+     * @since 1.2.0
+     */
+    default <T> ListenableFuture<T> compose(Executor executor,
+                                            FutureFunction<V, ListenableFuture<T>> success,
+                                            FutureFunction<Exception, ListenableFuture<T>> exception) {
+        return new Composing<T>().start(then(executor, success, exception));
+    }
+
     /**
      * 当前Future结果赋值给另外一个Promise
      *
@@ -0,0 +1,22 @@
+package io.github.oldmanpushcart.jpromisor;
+
+/**
+ * 监听器注册凭证
+ * <p>
+ * 由{@link ListenableFuture#register(java.util.concurrent.Executor, FutureListener)}返回，
+ * 用于以O(1)的代价移除本次注册的监听器
+ * </p>
+ *
+ * @since 1.2.0
+ */
+@FunctionalInterface
+public interface ListenerRegistration {
+
+    /**
+     * 移除本次注册的监听器
+     *
+     * @return 是否移除成功，监听器已被通知过或已被移除时返回{@code false}
+     */
+    boolean remove();
+
+}
@@ -0,0 +1,122 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import java.util.function.Predicate;
+
+/**
+ * 异步循环
+ * <p>
+ * 每轮以上一轮的状态判断是否继续，继续则执行步进函数得到下一轮状态；
+ * 步进返回的Future已完成时在当前循环中直接进入下一轮，未完成时挂上监听器，由其完成后继续循环，
+ * 因此同步完成的轮次不会产生递归调用
+ * </p>
+ *
+ * @param <S> 状态类型
+ */
+class Looping<S> implements FutureListener<S> {
+
+    private final Promise<S> promise;
+    private final Predicate<S> condition;
+    private final FutureFunction<S, ListenableFuture<S>> step;
+
+    /*
+     * 正在进行的步进
+     */
+    private volatile ListenableFuture<S> current;
+
+    Looping(Promise<S> promise, Predicate<S> condition, FutureFunction<S, ListenableFuture<S>> step) {
+        this.promise = promise;
+        this.condition = condition;
+        this.step = step;
+    }
+
+    /**
+     * 开始循环
+     *
+     * @param initial 初始状态
+     * @return 结果
+     */
+    ListenableFuture<S> start(S initial) {
+
+        // 结果被取消时，一并取消正在进行的步进
+        promise.onCancelled(() -> {
+            final ListenableFuture<S> future = current;
+            if (null != future) {
+                future.cancel(true);
+            }
+        });
+
+        loop(initial);
+        return promise;
+    }
+
+    private void loop(S state) {
+        while (true) {
+
+            // 两轮之间检查结果是否已被取消
+            if (promise.isDone()) {
+                return;
+            }
+
+            final ListenableFuture<S> future;
+            try {
+                if (!condition.test(state)) {
+                    promise.trySuccess(state);
+                    return;
+                }
+                future = step.apply(state);
+            } catch (InterruptedException cause) {
+                promise.tryCancel();
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception cause) {
+                promise.tryException(cause);
+                return;
+            }
+
+            if (null == future) {
+                promise.tryException(new NullPointerException("step future is null"));
+                return;
+            }
+
+            // 异步完成，由监听器继续循环
+            if (!future.isDone()) {
+                current = future;
+
+                // 步进期间结果已被取消，取消钩子可能没有看到本轮步进，需自行取消
+                if (promise.isDone()) {
+                    future.cancel(true);
+                    return;
+                }
+                future.appendListener(this);
+                return;
+            }
+
+            // 同步完成，直接进入下一轮
+            if (!future.isSuccess()) {
+                fail(future);
+                return;
+            }
+            state = future.getSuccess();
+
+        }
+    }
+
+    private void fail(ListenableFuture<S> future) {
+        if (future.isCancelled()) {
+            promise.tryCancel();
+        } else {
+            promise.tryException(future.getException());
+        }
+    }
+
+    @Override
+    public void onDone(ListenableFuture<S> future) {
+        current = null;
+        if (future.isSuccess()) {
+            loop(future.getSuccess());
+        } else {
+            fail(future);
+        }
+    }
+
+}
@@ -55,6 +55,27 @@ public interface Promise<V> extends ListenableFuture<V> {
      */
     boolean trySuccess();
 
+    /**
+     * 设置截止时间，由此接力产生的Future均会继承
+     * <p>
+     * 需在履约之前设置，到期后履约函数及接力函数均不再执行，直接以{@link java.util.concurrent.TimeoutException}失败；
+     * 上游已失败时以上游异常作为超时的cause，上游异常本身不受影响
+     * </p>
+     * <p>
+     * 默认实现不支持截止时间，设置非空值时抛出{@link UnsupportedOperationException}
+     * </p>
+     *
+     * @param deadline 截止时间，可为空
+     * @return this
+     * @since 1.2.0
+     */
+    default Promise<V> deadline(Deadline deadline) {
+        if (null != deadline) {
+            throw new UnsupportedOperationException("deadline is not supported by " + getClass().getName());
+        }
+        return this;
+    }
+
     /**
      * 履约
      *
@@ -0,0 +1,182 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Promise作用域
+ * <p>
+ * 通过{@link #promisor()}创建的Promise均为作用域的子Promise：
+ * <ul>
+ * <li>任意一个子Promise异常，其余未完成的子Promise均会被取消</li>
+ * <li>作用域关闭时，所有未完成的子Promise均会被取消</li>
+ * <li>{@link #join()}返回的Future在所有子Promise完成后完成</li>
+ * </ul>
+ * 子Promise接力产生的Future不在作用域的管理范围内，它们会随子Promise的取消而取消
+ * </p>
+ *
+ * <pre>
+ * try (PromiseScope scope = new PromiseScope()) {
+ *     scope.promisor().fulfill(executor, () -> loadA());
+ *     scope.promisor().fulfill(executor, () -> loadB());
+ *     scope.join().sync();
+ * }
+ * </pre>
+ *
+ * @since 1.2.0
+ */
+public class PromiseScope implements AutoCloseable {
+
+    private final Promisor promisor;
+
+    /*
+     * 作用域结束
+     */
+    private final Promise<Void> finished;
+
+    /*
+     * 未完成的子Promise
+     */
+    private final Set<Promise<?>> children = ConcurrentHashMap.newKeySet();
+
+    /*
+     * 未完成的子Promise数量
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /*
+     * 作用域已封闭，不再接受新的子Promise
+     */
+    private volatile boolean sealed;
+
+    /**
+     * Promise作用域
+     */
+    public PromiseScope() {
+        this(new Promisor());
+    }
+
+    /**
+     * Promise作用域
+     *
+     * @param parent 父承诺者，作用域内的承诺者继承其配置
+     */
+    public PromiseScope(Promisor parent) {
+        this.finished = parent.promise();
+        this.promisor = new Promisor(parent) {
+
+            @Override
+            public <V> Promise<V> promise() {
+                return track(super.promise());
+            }
+
+        };
+    }
+
+    /**
+     * 作用域内的承诺者
+     *
+     * @return 承诺者
+     */
+    public Promisor promisor() {
+        return promisor;
+    }
+
+    /**
+     * 未完成的子Promise数量
+     *
+     * @return 数量
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * 封闭作用域并等待所有子Promise完成
+     * <p>
+     * 封闭后通过{@link #promisor()}创建的Promise将直接被取消；
+     * 任意子Promise异常时，返回的Future以该异常失败
+     * </p>
+     *
+     * @return 所有子Promise均已完成的Future
+     */
+    public ListenableFuture<Void> join() {
+        seal();
+        return finished;
+    }
+
+    /**
+     * 关闭作用域，取消所有未完成的子Promise
+     */
+    @Override
+    public void close() {
+        seal();
+        if (pending.get() > 0) {
+            finished.tryCancel();
+            cancelAll();
+        }
+    }
+
+    private void seal() {
+        sealed = true;
+        if (pending.get() == 0) {
+            finished.trySuccess();
+        }
+    }
+
+    /*
+     * 子Promise互不相关，任一子Promise的监听器抛出异常都不能影响其余子Promise的取消，
+     * 全部取消后再抛出第一个异常，之后的异常附加为被抑制异常
+     */
+    private void cancelAll() {
+        Throwable first = null;
+        for (final Promise<?> child : children) {
+            try {
+                child.tryCancel();
+            } catch (RuntimeException | Error cause) {
+                if (null == first) {
+                    first = cause;
+                } else {
+                    first.addSuppressed(cause);
+                }
+            }
+        }
+        if (first instanceof Error) {
+            throw (Error) first;
+        }
+        if (null != first) {
+            throw (RuntimeException) first;
+        }
+    }
+
+    private <V> Promise<V> track(Promise<V> promise) {
+        pending.incrementAndGet();
+        children.add(promise);
+
+        // 作用域已封闭（或正在封闭），不再接受新的子Promise
+        if (sealed) {
+            promise.tryCancel();
+        }
+
+        promise.onDone(this::onChildDone);
+        return promise;
+    }
+
+    private void onChildDone(ListenableFuture<?> child) {
+        children.remove(child);
+
+        // 任意子Promise异常，作用域失败并取消其余子Promise
+        try {
+            if (child.isException()) {
+                finished.tryException(child.getException());
+                cancelAll();
+            }
+        } finally {
+            if (pending.decrementAndGet() == 0 && sealed) {
+                finished.trySuccess();
+            }
+        }
+    }
+
+}
@@ -1,18 +1,36 @@
 package io.github.oldmanpushcart.jpromisor;
 
+import io.github.oldmanpushcart.jpromisor.impl.CompletedFuture;
+import io.github.oldmanpushcart.jpromisor.impl.FutureOptions;
 import io.github.oldmanpushcart.jpromisor.impl.NotifiableFuture;
 import io.github.oldmanpushcart.jpromisor.FutureFunction.FutureCallable;
 import io.github.oldmanpushcart.jpromisor.FutureFunction.FutureConsumer;
 import io.github.oldmanpushcart.jpromisor.FutureFunction.FutureExecutable;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * 承诺者
  */
 public class Promisor {
 
-    private final ListeningInterceptor interceptor;
+    private final ScheduledExecutorService timer;
+    private volatile FutureOptions options;
+    private final HedgeMetrics hedgeMetrics = new HedgeMetrics();
+
+    /*
+     * 底层执行器对应的串行队列，受自身保护；
+     * 弱引用持有，不再使用的执行器及其串行队列可被回收
+     */
+    private final Map<Executor, WeakReference<KeyedSerialExecutor<Object>>> serials = new WeakHashMap<>();
 
     /**
      * 承诺者
@@ -27,7 +45,147 @@ public class Promisor {
      * @param interceptor 监听拦截器
      */
     public Promisor(ListeningInterceptor interceptor) {
-        this.interceptor = interceptor;
+        this(interceptor, null);
+    }
+
+    /**
+     * 承诺者
+     *
+     * @param interceptor 监听拦截器
+     * @param timer       定时器，为空时使用全局共享的定时器
+     * @since 1.2.0
+     */
+    public Promisor(ListeningInterceptor interceptor, ScheduledExecutorService timer) {
+        this(FutureOptions.of(interceptor), timer);
+    }
+
+    /**
+     * 承诺者，继承父承诺者的全部配置
+     *
+     * @param parent 父承诺者
+     * @since 1.2.0
+     */
+    protected Promisor(Promisor parent) {
+        this(parent.options, parent.timer);
+    }
+
+    private Promisor(FutureOptions options, ScheduledExecutorService timer) {
+        this.options = options;
+        this.timer = timer;
+    }
+
+    /**
+     * 设置泄漏检测器，只影响之后创建的Promise
+     *
+     * @param leakDetector 泄漏检测器，为空时关闭泄漏检测
+     * @return this
+     * @since 1.2.0
+     */
+    public Promisor leakDetector(LeakDetector leakDetector) {
+        this.options = options.withLeakDetector(leakDetector);
+        return this;
+    }
+
+    /**
+     * 设置阻塞调用守卫，只影响之后创建的Promise及其接力产生的Future
+     *
+     * @param blockingGuard 阻塞调用守卫，为空时不检查
+     * @return this
+     * @since 1.2.0
+     */
+    public Promisor blockingGuard(BlockingGuard blockingGuard) {
+        this.options = options.withBlockingGuard(blockingGuard);
+        return this;
+    }
+
+    /**
+     * 设置等待策略，只影响之后创建的Promise及其接力产生的Future
+     *
+     * @param waitStrategy 等待策略，为空时直接阻塞
+     * @return this
+     * @since 1.2.0
+     */
+    public Promisor waitStrategy(WaitStrategy waitStrategy) {
+        this.options = options.withWaitStrategy(waitStrategy);
+        return this;
+    }
+
+    /**
+     * 设置阶段融合，只影响之后创建的Promise及其接力产生的Future
+     * <p>
+     * 开启后，在同一执行器上连续接力的阶段（如{@code success(f).success(g).exception(h)}）串成一条流水线，
+     * 由首个阶段的监听器在一次派发中依次执行，后续阶段不再各自注册监听器、封装任务和派发。
+     * 被融合的阶段不再单独经过{@link ListeningInterceptor}，且不会被派发到执行器的不同任务中
+     * </p>
+     *
+     * @param fusion 是否开启
+     * @return this
+     * @since 1.2.0
+     */
+    public Promisor fusion(boolean fusion) {
+        this.options = options.withFusion(fusion);
+        return this;
+    }
+
+    /**
+     * 设置内部异常不填充堆栈，只影响之后创建的Promise及其接力产生的Future
+     * <p>
+     * 开启后，由框架内部产生的取消异常与超时异常（截止时间到期、{@code get}超时）不再填充堆栈，
+     * 取消、超时频繁发生时可显著降低开销；业务自身预期内的失败可使用{@link Failure}
+     * </p>
+     *
+     * @param stackless 是否开启
+     * @return this
+     * @since 1.2.0
+     */
+    public Promisor stackless(boolean stackless) {
+        this.options = options.withStackless(stackless);
+        return this;
+    }
+
+    /**
+     * 设置是否记录时间戳，只影响之后创建的Promise及其接力产生的Future
+     * <p>
+     * 开启后Future记录创建、完成及每个监听器开始执行的时间，通过{@link Timing#of(ListenableFuture)}读取；
+     * 未开启时Future上不存在这些字段
+     * </p>
+     *
+     * @param timing 是否开启
+     * @return this
+     * @since 1.2.0
+     */
+    public Promisor timing(boolean timing) {
+        this.options = options.withTiming(timing);
+        return this;
+    }
+
+    /**
+     * 设置异步调用链抽样间隔，只影响之后创建的Promise及其接力产生的Future
+     * <p>
+     * 开启后，每{@code samplingInterval}条接力链抽中一条，记录{@code then}、{@code success}、{@code exception}、
+     * {@code compose}和{@code assign}的调用位置（JDK 11+使用{@code StackWalker}，只遍历到第一个用户栈帧），
+     * 抽中的接力链失败时，失败原因上会附加一个{@link io.github.oldmanpushcart.jpromisor.impl.AsyncStackTrace}作为被抑制异常。
+     * 未抽中的接力链仅需一次随机数判断
+     * </p>
+     *
+     * @param samplingInterval 抽样间隔，1表示全部记录，0表示关闭
+     * @return this
+     * @since 1.2.0
+     */
+    public Promisor asyncTrace(int samplingInterval) {
+        this.options = options.withAsyncTraceInterval(samplingInterval);
+        return this;
+    }
+
+    /**
+     * 定时器
+     *
+     * @return 定时器
+     */
+    ScheduledExecutorService timer() {
+        return null != timer
+                ? timer
+                : SharedTimer.timer;
     }
 
     /**
@@ -37,7 +195,27 @@ public class Promisor {
      * @return Promise
      */
     public <V> Promise<V> promise() {
-        return new NotifiableFuture<>(interceptor);
+        final Promise<V> promise = NotifiableFuture.create(options);
+
+        // 在带截止时间的函数中创建的Promise，继承当前截止时间
+        final Deadline deadline = Deadline.current();
+        if (null != deadline) {
+            promise.deadline(deadline);
+        }
+
+        return promise;
+    }
+
+    /**
+     * Promise
+     *
+     * @param deadline 截止时间
+     * @param <V>      类型
+     * @return Promise
+     * @since 1.2.0
+     */
+    public <V> Promise<V> promise(Deadline deadline) {
+        return this.<V>promise().deadline(deadline);
     }
 
     /**
@@ -71,6 +249,48 @@ public class Promisor {
         return promise;
     }
 
+    /**
+     * 已成功的Future
+     * <p>
+     * 结果已知时无需创建Promise：注册的监听器立即执行，{@code get()}不会阻塞，
+     * 内联接力直接计算出下一个已完成的Future；{@code null}、{@code true}/{@code false}在默认配置下共用同一个实例
+     * </p>
+     * <p>
+     * 已完成的Future不携带截止时间与异步调用链，由它接力产生的Future同样不携带；需要时应从{@link #promise()}开始
+     * </p>
+     *
+     * @param value 成功值
+     * @param <V>   类型
+     * @return Future
+     * @since 1.2.0
+     */
+    public <V> ListenableFuture<V> succeeded(V value) {
+        return CompletedFuture.succeeded(options, value);
+    }
+
+    /**
+     * 已失败的Future
+     *
+     * @param cause 失败原因
+     * @param <V>   类型
+     * @return Future
+     * @since 1.2.0
+     */
+    public <V> ListenableFuture<V> failed(Exception cause) {
+        return CompletedFuture.failed(options, cause);
+    }
+
+    /**
+     * 已取消的Future，默认配置下共用同一个实例
+     *
+     * @param <V> 类型
+     * @return Future
+     * @since 1.2.0
+     */
+    public <V> ListenableFuture<V> cancelled() {
+        return CompletedFuture.cancelled(options);
+    }
+
     /**
      * 履约
      *
@@ -94,4 +314,146 @@ public class Promisor {
         return this.<V>promise().fulfill(executor, fn);
     }
 
+    /**
+     * 对冲请求，备份请求在{@link ForkJoinPool#commonPool()}上发起
+     *
+     * @param delay       发起备份请求前的等待时间
+     * @param unit        时间单位
+     * @param maxAttempts 最大请求数（包含主请求）
+     * @param fn          请求函数
+     * @param <V>         类型
+     * @return Future
+     * @see #hedge(Executor, long, TimeUnit, int, FutureCallable)
+     * @since 1.2.0
+     */
+    public <V> ListenableFuture<V> hedge(long delay, TimeUnit unit, int maxAttempts, FutureCallable<ListenableFuture<V>> fn) {
+        return hedge(ForkJoinPool.commonPool(), delay, unit, maxAttempts, fn);
+    }
+
+    /**
+     * 对冲请求
+     * <p>
+     * 先发起主请求，若在延迟内未完成则发起备份请求，直至达到最大请求数；
+     * 任意一次请求成功即完成结果并取消其余请求，某次请求失败时立即发起下一次请求，全部失败后以最后一次失败结束。
+     * 请求函数返回{@code null}视为该次请求失败。结果被取消时，所有请求一并取消
+     * </p>
+     *
+     * @param executor    发起备份请求的执行器，定时器线程只负责触发
+     * @param delay       发起备份请求前的等待时间
+     * @param unit        时间单位
+     * @param maxAttempts 最大请求数（包含主请求）
+     * @param fn          请求函数，主请求在当前线程调用，备份请求在执行器上调用
+     * @param <V>         类型
+     * @return Future
+     * @since 1.2.0
+     */
+    public <V> ListenableFuture<V> hedge(Executor executor, long delay, TimeUnit unit, int maxAttempts, FutureCallable<ListenableFuture<V>> fn) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        return new Hedging<V>(this, executor, delay, unit, maxAttempts, fn, hedgeMetrics).start();
+    }
+
+    /**
+     * 异步循环
+     * <p>
+     * 当条件成立时以当前状态执行步进函数，步进完成后以其结果作为新状态继续下一轮，条件不成立时以当前状态完成；
+     * 步进同步完成的轮次在循环中直接执行，不会因递归而撑爆调用栈。
+     * 任意一轮失败时以该失败结束，结果被取消后不再进入下一轮，并取消正在进行的步进
+     * </p>
+     *
+     * <pre>
+     * promisor.loop(firstPage, page -> page.hasNext(), page -> client.next(page.cursor()))
+     * </pre>
+     *
+     * @param initial   初始状态
+     * @param condition 继续条件
+     * @param step      步进函数
+     * @param <S>       状态类型
+     * @return Future
+     * @since 1.2.0
+     */
+    public <S> ListenableFuture<S> loop(S initial, Predicate<S> condition, FutureFunction<S, ListenableFuture<S>> step) {
+        return new Looping<>(this.<S>promise(), condition, step).start(initial);
+    }
+
+    /**
+     * 异步资源管理
+     * <p>
+     * 获取资源后以其执行异步函数，异步函数的Future完成时先关闭资源再完成结果：
+     * 关闭失败时，成功的结果转为以关闭异常失败，失败的结果则将关闭异常作为被抑制的异常附加其上；
+     * 结果被提前取消时立即关闭资源并取消异步函数的Future。无论成功、失败还是取消，资源均只关闭一次
+     * </p>
+     *
+     * <pre>
+     * promisor.using(pool::borrow, connection -> connection.query(sql))
+     * </pre>
+     *
+     * @param acquire 资源获取函数
+     * @param fn      异步函数
+     * @param <R>     资源类型
+     * @param <T>     结果类型
+     * @return Future
+     * @since 1.2.0
+     */
+    public <R extends AutoCloseable, T> ListenableFuture<T> using(FutureCallable<R> acquire,
+                                                                FutureFunction<R, ListenableFuture<T>> fn) {
+        return new Using<R, T>(promise()).start(acquire, fn);
+    }
+
+    /**
+     * 按KEY串行的执行器
+     * <p>
+     * 同一个KEY的任务在底层执行器上按提交顺序逐个执行，不同KEY的任务并行执行；
+     * 同一个承诺者对同一个底层执行器共享同一组串行队列；
+     * 承诺者不会长期持有底层执行器，返回的执行器不再使用且没有未完成的任务后，串行队列随之回收
+     * </p>
+     *
+     * @param executor 底层执行器
+     * @param key      KEY
+     * @return 执行器
+     * @see KeyedSerialExecutor
+     * @since 1.2.0
+     */
+    public Executor serial(Executor executor, Object key) {
+        synchronized (serials) {
+            final WeakReference<KeyedSerialExecutor<Object>> reference = serials.get(executor);
+            KeyedSerialExecutor<Object> serial = null != reference ? reference.get() : null;
+            if (null == serial) {
+                serial = new KeyedSerialExecutor<>(executor);
+                serials.put(executor, new WeakReference<>(serial));
+            }
+            return serial.serial(key);
+        }
+    }
+
+    /**
+     * 对冲请求统计
+     *
+     * @return 统计
+     * @since 1.2.0
+     */
+    public HedgeMetrics getHedgeMetrics() {
+        return hedgeMetrics;
+    }
+
+    /**
+     * 全局共享定时器，首次使用时才创建
+     */
+    private static class SharedTimer {
+
+        private static final ScheduledExecutorService timer;
+
+        static {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                final Thread thread = new Thread(runnable, "jpromisor-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            timer = executor;
+        }
+
+    }
+
 }
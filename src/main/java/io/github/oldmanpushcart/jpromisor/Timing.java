@@ -0,0 +1,55 @@
+package io.github.oldmanpushcart.jpromisor;
+
+/**
+ * Future时间戳
+ * <p>
+ * 通过{@link Promisor#timing(boolean)}开启后，Promise及其接力产生的Future会记录创建、完成以及每个监听器开始执行时的
+ * {@link System#nanoTime()}，据此可以区分每个阶段的排队时间与执行时间。
+ * 未开启时Future上没有这些字段，内存占用不变
+ * </p>
+ *
+ * <pre>
+ * final Timing timing = Timing.of(future);
+ * if (null != timing) {
+ *     final long queueing = timing.getListenerStartedNanos()[0] - timing.getCompletedNanos();
+ * }
+ * </pre>
+ *
+ * @since 1.2.0
+ */
+public interface Timing {
+
+    /**
+     * 创建时间
+     *
+     * @return 纳秒时间戳
+     */
+    long getCreatedNanos();
+
+    /**
+     * 完成时间
+     *
+     * @return 纳秒时间戳，未完成时返回0
+     */
+    long getCompletedNanos();
+
+    /**
+     * 各监听器开始执行的时间，按开始执行的先后排列
+     *
+     * @return 纳秒时间戳
+     */
+    long[] getListenerStartedNanos();
+
+    /**
+     * 获取Future的时间戳
+     *
+     * @param future Future
+     * @return 时间戳，未开启时返回{@code null}
+     */
+    static Timing of(ListenableFuture<?> future) {
+        return future instanceof Timing
+                ? (Timing) future
+                : null;
+    }
+
+}
@@ -0,0 +1,112 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import io.github.oldmanpushcart.jpromisor.FutureFunction.FutureCallable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 异步资源管理
+ * <p>
+ * 获取资源后执行异步函数，异步函数的Future完成时先关闭资源再完成结果，效果等同于异步的try-with-resources；
+ * 结果被提前取消时立即关闭资源并取消异步函数。无论哪条路径，资源都只关闭一次
+ * </p>
+ *
+ * @param <R> 资源类型
+ * @param <T> 结果类型
+ */
+class Using<R extends AutoCloseable, T> implements FutureListener<T> {
+
+    private final Promise<T> promise;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private R resource;
+
+    Using(Promise<T> promise) {
+        this.promise = promise;
+    }
+
+    /**
+     * 获取资源并执行异步函数
+     *
+     * @param acquire 资源获取函数
+     * @param fn      异步函数
+     * @return 结果
+     */
+    ListenableFuture<T> start(FutureCallable<R> acquire, FutureFunction<R, ListenableFuture<T>> fn) {
+
+        try {
+            resource = acquire.call();
+        } catch (InterruptedException cause) {
+            promise.tryCancel();
+            Thread.currentThread().interrupt();
+            return promise;
+        } catch (Exception cause) {
+            promise.tryException(cause);
+            return promise;
+        }
+
+        final ListenableFuture<T> future;
+        try {
+            future = fn.apply(resource);
+            if (null == future) {
+                throw new NullPointerException("using future is null");
+            }
+        } catch (InterruptedException cause) {
+            release();
+            promise.tryCancel();
+            Thread.currentThread().interrupt();
+            return promise;
+        } catch (Exception cause) {
+            suppress(cause, release());
+            promise.tryException(cause);
+            return promise;
+        }
+
+        // 结果被提前取消时关闭资源，并取消异步函数
+        promise.onCancelled(() -> {
+            release();
+            future.cancel(true);
+        });
+
+        future.appendListener(this);
+        return promise;
+    }
+
+    @Override
+    public void onDone(ListenableFuture<T> future) {
+        final Exception closeCause = release();
+        if (future.isCancelled()) {
+            promise.tryCancel();
+        } else if (future.isException()) {
+            final Exception cause = future.getException();
+            suppress(cause, closeCause);
+            promise.tryException(cause);
+        } else if (null != closeCause) {
+            promise.tryException(closeCause);
+        } else {
+            promise.trySuccess(future.getSuccess());
+        }
+    }
+
+    /*
+     * 关闭资源，只有第一次调用生效
+     * 返回关闭异常，没有时返回null
+     */
+    private Exception release() {
+        if (null == resource || !closed.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            resource.close();
+            return null;
+        } catch (Exception cause) {
+            return cause;
+        }
+    }
+
+    private static void suppress(Exception cause, Exception closeCause) {
+        if (null != closeCause && cause != closeCause) {
+            cause.addSuppressed(closeCause);
+        }
+    }
+
+}
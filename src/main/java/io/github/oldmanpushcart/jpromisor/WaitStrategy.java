@@ -0,0 +1,48 @@
+package io.github.oldmanpushcart.jpromisor;
+
+/**
+ * 等待策略
+ * <p>
+ * 决定{@code get()}、{@code sync()}、{@code await()}在未完成的Future上如何等待，
+ * 由{@link Promisor#waitStrategy(WaitStrategy)}配置
+ * </p>
+ *
+ * @since 1.2.0
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * 等待Future完成
+     *
+     * @param future       Future
+     * @param blocker      阻塞器，阻塞当前线程直至Future完成或超时
+     * @param timeoutNanos 超时时间（纳秒），{@link Long#MAX_VALUE}表示不限时
+     * @return 超时前是否已完成
+     * @throws InterruptedException 等待过程被中断
+     */
+    boolean await(ListenableFuture<?> future, Blocker blocker, long timeoutNanos) throws InterruptedException;
+
+    /**
+     * 阻塞器
+     */
+    @FunctionalInterface
+    interface Blocker {
+
+        /**
+         * 阻塞直至Future完成或超时
+         *
+         * @param timeoutNanos 超时时间（纳秒），{@link Long#MAX_VALUE}表示不限时
+         * @return 超时前是否已完成
+         * @throws InterruptedException 等待过程被中断
+         */
+        boolean block(long timeoutNanos) throws InterruptedException;
+
+    }
+
+    /**
+     * 直接阻塞
+     */
+    WaitStrategy blocking = (future, blocker, timeoutNanos) -> blocker.block(timeoutNanos);
+
+}
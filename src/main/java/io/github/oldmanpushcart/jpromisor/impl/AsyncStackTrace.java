@@ -0,0 +1,70 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+/**
+ * 异步调用链
+ * <p>
+ * 被抽样的接力链在失败时，以被抑制异常的形式附加到失败原因上，
+ * 其堆栈依次为失败阶段及其上游各阶段的创建位置（最近的在前），用于定位是谁搭建了这条接力链
+ * </p>
+ *
+ * @see io.github.oldmanpushcart.jpromisor.Promisor#asyncTrace(int)
+ * @since 1.2.0
+ */
+public final class AsyncStackTrace extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private AsyncStackTrace(StackTraceElement[] sites) {
+        super("async stack trace", null, false, true);
+        setStackTrace(sites);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    /**
+     * 将调用链附加到失败原因上，已附加过时忽略
+     *
+     * @param cause 失败原因
+     * @param chain 调用链
+     */
+    static void attach(Exception cause, Chain chain) {
+        for (final Throwable suppressed : cause.getSuppressed()) {
+            if (suppressed instanceof AsyncStackTrace) {
+                return;
+            }
+        }
+        cause.addSuppressed(new AsyncStackTrace(chain.toStackTrace()));
+    }
+
+    /**
+     * 调用链节点，记录一个阶段的创建位置及其上游
+     */
+    static final class Chain {
+
+        private final StackTraceElement site;
+        private final Chain parent;
+        private final int depth;
+
+        Chain(StackTraceElement site, Chain parent) {
+            this.site = site;
+            this.parent = parent;
+            this.depth = null == parent ? 1 : parent.depth + 1;
+        }
+
+        private StackTraceElement[] toStackTrace() {
+            final StackTraceElement[] sites = new StackTraceElement[depth];
+            int index = 0;
+            for (Chain chain = this; null != chain; chain = chain.parent) {
+                sites[index++] = null != chain.site
+                        ? chain.site
+                        : new StackTraceElement("<unknown>", "<unknown>", null, -1);
+            }
+            return sites;
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+/**
+ * 调用位置
+ * <p>
+ * Java 8下通过{@link Throwable#getStackTrace()}获取；
+ * JDK 11+通过多版本JAR加载{@code META-INF/versions/11}下的同名类，改用{@code StackWalker}按需遍历栈帧
+ * </p>
+ *
+ * @since 1.2.0
+ */
+final class CallSite {
+
+    /*
+     * 框架内部的栈帧需要跳过
+     */
+    static final String internal = "io.github.oldmanpushcart.jpromisor.impl.";
+
+    private CallSite() {
+    }
+
+    /**
+     * 获取调用框架的用户代码位置
+     *
+     * @return 调用位置，找不到时返回{@code null}
+     */
+    static StackTraceElement capture() {
+        for (final StackTraceElement element : new Throwable().getStackTrace()) {
+            if (!element.getClassName().startsWith(internal)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,416 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import io.github.oldmanpushcart.jpromisor.*;
+
+import java.util.concurrent.*;
+
+import static io.github.oldmanpushcart.jpromisor.FutureFunction.identity;
+import static io.github.oldmanpushcart.jpromisor.FutureFunction.throwing;
+import static io.github.oldmanpushcart.jpromisor.impl.StatefulFuture.*;
+
+/**
+ * 已完成的不可变Future
+ * <p>
+ * 结果在创建时即已确定，没有同步器、监听器链表和锁：
+ * <ul>
+ * <li>注册监听器时立即执行，无需排队</li>
+ * <li>{@code get()}、{@code sync()}、{@code await()}均不会阻塞</li>
+ * <li>在内联执行器上接力时直接计算出下一个已完成的Future，无需先创建Promise</li>
+ * </ul>
+ * 默认选项下{@code null}、{@code true}/{@code false}及取消的结果共用同一个实例
+ * </p>
+ * <p>
+ * 不携带截止时间与异步调用链：由此接力产生的Future不继承{@link Deadline}（包括创建时的{@link Deadline#current()}），
+ * 也不记录异步调用链；需要这些特性时应从{@link Promisor#promise()}开始接力
+ * </p>
+ *
+ * @param <V> 类型
+ * @see Promisor#succeeded(Object)
+ * @see Promisor#failed(Exception)
+ * @see Promisor#cancelled()
+ * @since 1.2.0
+ */
+public final class CompletedFuture<V> implements ListenableFuture<V> {
+
+    private static final CompletedFuture<?> nullF = new CompletedFuture<>(FutureOptions.defaults, SUCCESS, null);
+    private static final CompletedFuture<Boolean> trueF = new CompletedFuture<>(FutureOptions.defaults, SUCCESS, Boolean.TRUE);
+    private static final CompletedFuture<Boolean> falseF = new CompletedFuture<>(FutureOptions.defaults, SUCCESS, Boolean.FALSE);
+
+    /*
+     * 共享的取消结果，异常实例同样共享，堆栈没有意义因此不填充
+     */
+    private static final CompletedFuture<?> cancelledF = new CompletedFuture<>(FutureOptions.defaults, CANCEL, Stackless.cancellation());
+
+    /*
+     * 已完成无法再移除监听器
+     */
+    private static final ListenerRegistration notified = () -> false;
+
+    private final FutureOptions options;
+    private final int mask;
+    private final Object value;
+
+    private CompletedFuture(FutureOptions options, int mask, Object value) {
+        this.options = options;
+        this.mask = mask;
+        this.value = value;
+    }
+
+    /**
+     * 已成功的Future
+     *
+     * @param options 选项
+     * @param value   成功值
+     * @param <V>     类型
+     * @return Future
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> CompletedFuture<V> succeeded(FutureOptions options, V value) {
+        if (options == FutureOptions.defaults) {
+            if (null == value) {
+                return (CompletedFuture<V>) nullF;
+            } else if (Boolean.TRUE.equals(value)) {
+                return (CompletedFuture<V>) trueF;
+            } else if (Boolean.FALSE.equals(value)) {
+                return (CompletedFuture<V>) falseF;
+            }
+        }
+        return new CompletedFuture<>(options, SUCCESS, value);
+    }
+
+    /**
+     * 已失败的Future
+     *
+     * @param options 选项
+     * @param cause   失败原因
+     * @param <V>     类型
+     * @return Future
+     */
+    public static <V> CompletedFuture<V> failed(FutureOptions options, Exception cause) {
+        if (null == cause) {
+            throw new NullPointerException("cause");
+        }
+        return new CompletedFuture<>(options, EXCEPTION, cause);
+    }
+
+    /**
+     * 已取消的Future
+     *
+     * @param options 选项
+     * @param <V>     类型
+     * @return Future
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> CompletedFuture<V> cancelled(FutureOptions options) {
+        if (options == FutureOptions.defaults) {
+            return (CompletedFuture<V>) cancelledF;
+        }
+        return new CompletedFuture<>(options, CANCEL, options.isStackless()
+                ? Stackless.cancellation()
+                : new CancellationException());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <F extends ListenableFuture<V>> F future() {
+        return (F) this;
+    }
+
+    @Override
+    public boolean isFailure() {
+        return mask != SUCCESS;
+    }
+
+    @Override
+    public boolean isSuccess() {
+        return mask == SUCCESS;
+    }
+
+    @Override
+    public boolean isException() {
+        return mask == EXCEPTION;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return mask == CANCEL;
+    }
+
+    @Override
+    public boolean isDone() {
+        return true;
+    }
+
+    @Override
+    public Exception getException() {
+        return mask != SUCCESS ? (Exception) value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V getSuccess() {
+        return mask == SUCCESS ? (V) value : null;
+    }
+
+    @Override
+    public Deadline getDeadline() {
+        return null;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public V get() throws ExecutionException {
+        if (mask == EXCEPTION) {
+            throw new ExecutionException((Exception) value);
+        }
+        if (mask == CANCEL) {
+            throw (CancellationException) value;
+        }
+        return getSuccess();
+    }
+
+    @Override
+    public V get(long timeout, TimeUnit unit) throws ExecutionException {
+        return get();
+    }
+
+    @Override
+    public ListenableFuture<V> sync() throws ExecutionException, CancellationException {
+        get();
+        return this;
+    }
+
+    @Override
+    public ListenableFuture<V> syncUninterruptible() throws ExecutionException, CancellationException {
+        return sync();
+    }
+
+    @Override
+    public ListenableFuture<V> await() {
+        return this;
+    }
+
+    @Override
+    public ListenableFuture<V> awaitUninterruptible() {
+        return this;
+    }
+
+    @Override
+    public ListenableFuture<V> appendListener(FutureListener<V> listener) {
+        return appendListener(self, listener);
+    }
+
+    @Override
+    public ListenableFuture<V> appendListener(Executor executor, FutureListener<V> listener) {
+        register(executor, listener);
+        return this;
+    }
+
+    @Override
+    public ListenerRegistration register(FutureListener<V> listener) {
+        return register(self, listener);
+    }
+
+    @Override
+    public ListenerRegistration register(Executor executor, FutureListener<V> listener) {
+
+        // 判断是否需要跳过当前listener
+        if ((maskOf(listener) & mask) != 0) {
+            if (isInline(executor)) {
+                notify(executor, listener);
+            } else {
+                executor.execute(() -> notify(executor, listener));
+            }
+        }
+
+        return notified;
+    }
+
+    private void notify(Executor executor, FutureListener<V> listener) {
+        final Object event = FlightRecorder.beginListener();
+        try {
+            options.getInterceptor().onListening(this, listener);
+        } finally {
+            FlightRecorder.endListener(event, executor, listener);
+        }
+    }
+
+    @Override
+    public ListenableFuture<V> removeListener(FutureListener<V> listener) {
+        return this;
+    }
+
+    @Override
+    public <T> ListenableFuture<T> success(FutureFunction<V, T> fn) {
+        return success(self, fn);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> success(Executor executor, FutureFunction<V, T> fn) {
+        return then(executor, fn, throwing());
+    }
+
+    @Override
+    public ListenableFuture<V> exception(FutureFunction<Exception, V> fn) {
+        return exception(self, fn);
+    }
+
+    @Override
+    public ListenableFuture<V> exception(Executor executor, FutureFunction<Exception, V> fn) {
+        return then(executor, identity(), fn);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> then(FutureFunction<V, T> success, FutureFunction<Exception, T> exception) {
+        return then(self, success, exception);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> then(Executor executor, FutureFunction<V, T> success, FutureFunction<Exception, T> exception) {
+
+        // 内联执行时直接计算
+        if (isInline(executor)) {
+            return apply(success, exception);
+        }
+
+        final NotifiableFuture<T> thenF = NotifiableFuture.derive(options);
+        executor.execute(() -> apply(success, exception).assign(self, thenF));
+        return thenF;
+    }
+
+    /*
+     * 执行接力函数，结果同样为已完成的Future
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletedFuture<T> apply(FutureFunction<V, T> success, FutureFunction<Exception, T> exception) {
+
+        // cancelled
+        if (mask == CANCEL) {
+            return (CompletedFuture<T>) this;
+        }
+
+        try {
+            return succeeded(options, mask == SUCCESS
+                    ? success.apply(getSuccess())
+                    : exception.apply(getException()));
+        } catch (InterruptedException cause) {
+            Thread.currentThread().interrupt();
+            return cancelled(options);
+        } catch (Exception cause) {
+
+            // 原异常直接抛出时沿用当前结果
+            return mask == EXCEPTION && cause == value
+                    ? (CompletedFuture<T>) this
+                    : failed(options, cause);
+        }
+
+    }
+
+    @Override
+    public <T> ListenableFuture<T> flatSuccess(FutureFunction<V, ListenableFuture<T>> fn) {
+        return flatSuccess(self, fn);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> flatSuccess(Executor executor, FutureFunction<V, ListenableFuture<T>> fn) {
+        return compose(executor, fn, throwing());
+    }
+
+    @Override
+    public <T> ListenableFuture<T> compose(FutureFunction<V, ListenableFuture<T>> success,
+                                           FutureFunction<Exception, ListenableFuture<T>> exception) {
+        return compose(self, success, exception);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> compose(Executor executor,
+                                           FutureFunction<V, ListenableFuture<T>> success,
+                                           FutureFunction<Exception, ListenableFuture<T>> exception) {
+
+        // 内联执行时直接取得内层Future
+        if (isInline(executor)) {
+            return flatten(success, exception, null);
+        }
+
+        final NotifiableFuture<T> composeF = NotifiableFuture.derive(options);
+        executor.execute(() -> flatten(success, exception, composeF));
+        return composeF;
+    }
+
+    /*
+     * 执行组合函数，内层Future已完成时直接返回，否则由接力产生的Future承接其结果
+     * 指定了承接的Future时结果直接赋值给它，内层完成后只需一跳
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ListenableFuture<T> flatten(FutureFunction<V, ListenableFuture<T>> success,
+                                            FutureFunction<Exception, ListenableFuture<T>> exception,
+                                            NotifiableFuture<T> composeF) {
+        final CompletedFuture<ListenableFuture<T>> innerF = apply(success, exception);
+        final ListenableFuture<T> inner = innerF.getSuccess();
+        final ListenableFuture<T> result;
+        if (!innerF.isSuccess()) {
+            result = (CompletedFuture<T>) innerF;
+        } else if (null == inner) {
+            result = failed(options, new NullPointerException("composed future is null"));
+        } else if (inner instanceof CompletedFuture) {
+            result = inner;
+        } else {
+            return inner.assign(null != composeF ? composeF : NotifiableFuture.derive(options));
+        }
+        return null != composeF
+                ? result.assign(self, composeF)
+                : result;
+    }
+
+    @Override
+    public <P extends Promise<V>> P assign(P promise) {
+        return assign(self, promise);
+    }
+
+    @Override
+    public <P extends Promise<V>> P assign(Executor executor, P promise) {
+        if (promise.isDone()) {
+            return promise;
+        }
+        if (isInline(executor)) {
+            complete(promise);
+        } else {
+            executor.execute(() -> complete(promise));
+        }
+        return promise;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void complete(Promise<?> promise) {
+        if (mask == SUCCESS) {
+            ((Promise<V>) promise).trySuccess((V) value);
+        } else if (mask == EXCEPTION) {
+            promise.tryException((Exception) value);
+        } else {
+            promise.tryCancel();
+        }
+    }
+
+    @Override
+    public <P extends Promise<?>> P assignFail(P promise) {
+        return assignFail(self, promise);
+    }
+
+    @Override
+    public <P extends Promise<?>> P assignFail(Executor executor, P promise) {
+        if (mask == SUCCESS || promise.isDone()) {
+            return promise;
+        }
+        if (isInline(executor)) {
+            complete(promise);
+        } else {
+            executor.execute(() -> complete(promise));
+        }
+        return promise;
+    }
+
+}
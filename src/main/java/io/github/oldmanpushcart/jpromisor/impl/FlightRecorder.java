@@ -0,0 +1,75 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import io.github.oldmanpushcart.jpromisor.FutureListener;
+import io.github.oldmanpushcart.jpromisor.ListenableFuture;
+
+import java.util.concurrent.Executor;
+
+/**
+ * JFR事件埋点
+ * <p>
+ * Java 8下的空实现；JDK 11+通过多版本JAR加载{@code META-INF/versions/11}下的同名类，
+ * 产生Promise完成、监听器执行、阻塞等待及超时事件
+ * </p>
+ *
+ * @since 1.2.0
+ */
+final class FlightRecorder {
+
+    private FlightRecorder() {
+    }
+
+    /**
+     * 监听器开始执行
+     *
+     * @return 事件，未开启时返回{@code null}
+     */
+    static Object beginListener() {
+        return null;
+    }
+
+    /**
+     * 监听器执行结束
+     *
+     * @param event    {@link #beginListener()}返回的事件
+     * @param executor 执行器
+     * @param listener 监听器
+     */
+    static void endListener(Object event, Executor executor, FutureListener<?> listener) {
+    }
+
+    /**
+     * 开始阻塞等待
+     *
+     * @return 事件，未开启时返回{@code null}
+     */
+    static Object beginBlocking() {
+        return null;
+    }
+
+    /**
+     * 阻塞等待结束
+     *
+     * @param event    {@link #beginBlocking()}返回的事件
+     * @param timedOut 是否超时
+     */
+    static void endBlocking(Object event, boolean timedOut) {
+    }
+
+    /**
+     * Promise完成
+     *
+     * @param future Future
+     */
+    static void completed(ListenableFuture<?> future) {
+    }
+
+    /**
+     * 超时
+     *
+     * @param reason 原因
+     */
+    static void timeout(String reason) {
+    }
+
+}
@@ -0,0 +1,114 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Future核心字段的原子访问
+ * <p>
+ * Java 8下通过volatile字段及{@link AtomicReferenceFieldUpdater}访问；
+ * JDK 11+通过多版本JAR加载{@code META-INF/versions/11}下的同名类，改用{@code VarHandle}，
+ * 读取使用acquire、监听器链表头写入使用release；完成结果的写入及等待者入栈后的复查仍为volatile，
+ * 否则弱内存模型平台上会丢失唤醒
+ * </p>
+ *
+ * @since 1.2.0
+ */
+final class FutureAccess {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<StatefulFuture, Object> resultUpdater
+            = AtomicReferenceFieldUpdater.newUpdater(StatefulFuture.class, Object.class, "result");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<NotifiableFuture, NotifiableFuture.Waiter> waitersUpdater
+            = AtomicReferenceFieldUpdater.newUpdater(NotifiableFuture.class, NotifiableFuture.Waiter.class, "waiters");
+
+    private FutureAccess() {
+    }
+
+    /**
+     * 读取完成结果
+     *
+     * @param future Future
+     * @return 完成结果，未完成时为空
+     */
+    static Object result(StatefulFuture<?> future) {
+        return future.result;
+    }
+
+    /**
+     * 等待者入栈后复查完成结果，必须为volatile读
+     *
+     * @param future Future
+     * @return 完成结果，未完成时为空
+     */
+    static Object recheck(StatefulFuture<?> future) {
+        return future.result;
+    }
+
+    /**
+     * 以指定结果完成，只有第一次生效
+     *
+     * @param future Future
+     * @param result 完成结果
+     * @return TRUE | FALSE
+     */
+    static boolean complete(StatefulFuture<?> future, Object result) {
+        return resultUpdater.compareAndSet(future, null, result);
+    }
+
+    /**
+     * 读取监听器链表头
+     *
+     * @param future Future
+     * @param <V>    类型
+     * @return 链表头
+     */
+    static <V> NotifiableFuture.Listening<V> head(NotifiableFuture<V> future) {
+        return future.head;
+    }
+
+    /**
+     * 写入监听器链表头，调用方需持有future的锁
+     *
+     * @param future Future
+     * @param head   链表头
+     * @param <V>    类型
+     */
+    static <V> void head(NotifiableFuture<V> future, NotifiableFuture.Listening<V> head) {
+        future.head = head;
+    }
+
+    /**
+     * 读取等待栈顶
+     *
+     * @param future Future
+     * @return 栈顶
+     */
+    static NotifiableFuture.Waiter waiters(NotifiableFuture<?> future) {
+        return future.waiters;
+    }
+
+    /**
+     * 替换等待栈顶
+     *
+     * @param future Future
+     * @param expect 期望的栈顶
+     * @param update 新的栈顶
+     * @return TRUE | FALSE
+     */
+    static boolean casWaiters(NotifiableFuture<?> future, NotifiableFuture.Waiter expect, NotifiableFuture.Waiter update) {
+        return waitersUpdater.compareAndSet(future, expect, update);
+    }
+
+    /**
+     * 摘下整个等待栈
+     *
+     * @param future Future
+     * @return 原栈顶
+     */
+    static NotifiableFuture.Waiter takeWaiters(NotifiableFuture<?> future) {
+        return waitersUpdater.getAndSet(future, null);
+    }
+
+}
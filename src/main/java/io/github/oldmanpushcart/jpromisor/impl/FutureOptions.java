@@ -0,0 +1,240 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import io.github.oldmanpushcart.jpromisor.BlockingGuard;
+import io.github.oldmanpushcart.jpromisor.LeakDetector;
+import io.github.oldmanpushcart.jpromisor.ListeningInterceptor;
+import io.github.oldmanpushcart.jpromisor.WaitStrategy;
+
+/**
+ * Future选项
+ * <p>
+ * 由{@link io.github.oldmanpushcart.jpromisor.Promisor}配置，不可变；
+ * 与监听拦截器一样，当前及从当前接力产生的Future共享同一份选项
+ * </p>
+ *
+ * @since 1.2.0
+ */
+public final class FutureOptions {
+
+    /**
+     * 默认选项
+     */
+    public static final FutureOptions defaults = new FutureOptions(
+            ListeningInterceptor.empty,
+            LeakDetector.defaults,
+            null,
+            WaitStrategy.blocking,
+            false,
+            false,
+            false,
+            0
+    );
+
+    private final ListeningInterceptor interceptor;
+    private final LeakDetector leakDetector;
+    private final BlockingGuard blockingGuard;
+    private final WaitStrategy waitStrategy;
+    private final boolean fusion;
+    private final boolean stackless;
+    private final boolean timing;
+    private final int asyncTraceInterval;
+
+    private FutureOptions(ListeningInterceptor interceptor, LeakDetector leakDetector, BlockingGuard blockingGuard,
+                          WaitStrategy waitStrategy, boolean fusion, boolean stackless, boolean timing,
+                          int asyncTraceInterval) {
+        this.interceptor = interceptor;
+        this.leakDetector = leakDetector;
+        this.blockingGuard = blockingGuard;
+        this.waitStrategy = waitStrategy;
+        this.fusion = fusion;
+        this.stackless = stackless;
+        this.timing = timing;
+        this.asyncTraceInterval = asyncTraceInterval;
+    }
+
+    /**
+     * 以默认选项为基础，使用指定的监听拦截器
+     *
+     * @param interceptor 监听拦截器，可为空
+     * @return 选项
+     */
+    public static FutureOptions of(ListeningInterceptor interceptor) {
+        return defaults.withInterceptor(interceptor);
+    }
+
+    /**
+     * 监听拦截器
+     *
+     * @return 监听拦截器
+     */
+    public ListeningInterceptor getInterceptor() {
+        return interceptor;
+    }
+
+    /**
+     * 泄漏检测器
+     *
+     * @return 泄漏检测器
+     */
+    public LeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+
+    /**
+     * 阻塞调用守卫
+     *
+     * @return 阻塞调用守卫，未配置时为空
+     */
+    public BlockingGuard getBlockingGuard() {
+        return blockingGuard;
+    }
+
+    /**
+     * 等待策略
+     *
+     * @return 等待策略
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * 是否融合同一执行器上连续接力的阶段
+     *
+     * @return TRUE | FALSE
+     */
+    public boolean isFusion() {
+        return fusion;
+    }
+
+    /**
+     * 内部产生的取消、超时异常是否不填充堆栈
+     *
+     * @return TRUE | FALSE
+     */
+    public boolean isStackless() {
+        return stackless;
+    }
+
+    /**
+     * 是否记录时间戳
+     *
+     * @return TRUE | FALSE
+     */
+    public boolean isTiming() {
+        return timing;
+    }
+
+    /**
+     * 异步调用链抽样间隔
+     *
+     * @return 每{@code N}条接力链记录一条，0表示关闭
+     */
+    public int getAsyncTraceInterval() {
+        return asyncTraceInterval;
+    }
+
+    /**
+     * 替换监听拦截器
+     *
+     * @param interceptor 监听拦截器，为空时使用{@link ListeningInterceptor#empty}
+     * @return 新选项
+     */
+    public FutureOptions withInterceptor(ListeningInterceptor interceptor) {
+        final ListeningInterceptor target = null != interceptor ? interceptor : ListeningInterceptor.empty;
+        return target == this.interceptor
+                ? this
+                : new FutureOptions(target, leakDetector, blockingGuard, waitStrategy, fusion, stackless, timing, asyncTraceInterval);
+    }
+
+    /**
+     * 替换泄漏检测器
+     *
+     * @param leakDetector 泄漏检测器，为空时关闭泄漏检测
+     * @return 新选项
+     */
+    public FutureOptions withLeakDetector(LeakDetector leakDetector) {
+        final LeakDetector target = null != leakDetector ? leakDetector : LeakDetector.disabled;
+        return target == this.leakDetector
+                ? this
+                : new FutureOptions(interceptor, target, blockingGuard, waitStrategy, fusion, stackless, timing, asyncTraceInterval);
+    }
+
+    /**
+     * 替换阻塞调用守卫
+     *
+     * @param blockingGuard 阻塞调用守卫，为空时不检查
+     * @return 新选项
+     */
+    public FutureOptions withBlockingGuard(BlockingGuard blockingGuard) {
+        return blockingGuard == this.blockingGuard
+                ? this
+                : new FutureOptions(interceptor, leakDetector, blockingGuard, waitStrategy, fusion, stackless, timing, asyncTraceInterval);
+    }
+
+    /**
+     * 替换等待策略
+     *
+     * @param waitStrategy 等待策略，为空时直接阻塞
+     * @return 新选项
+     */
+    public FutureOptions withWaitStrategy(WaitStrategy waitStrategy) {
+        final WaitStrategy target = null != waitStrategy ? waitStrategy : WaitStrategy.blocking;
+        return target == this.waitStrategy
+                ? this
+                : new FutureOptions(interceptor, leakDetector, blockingGuard, target, fusion, stackless, timing, asyncTraceInterval);
+    }
+
+    /**
+     * 替换阶段融合开关
+     *
+     * @param fusion 是否融合同一执行器上连续接力的阶段
+     * @return 新选项
+     */
+    public FutureOptions withFusion(boolean fusion) {
+        return fusion == this.fusion
+                ? this
+                : new FutureOptions(interceptor, leakDetector, blockingGuard, waitStrategy, fusion, stackless, timing, asyncTraceInterval);
+    }
+
+    /**
+     * 替换内部异常的堆栈开关
+     *
+     * @param stackless 内部产生的取消、超时异常是否不填充堆栈
+     * @return 新选项
+     */
+    public FutureOptions withStackless(boolean stackless) {
+        return stackless == this.stackless
+                ? this
+                : new FutureOptions(interceptor, leakDetector, blockingGuard, waitStrategy, fusion, stackless, timing, asyncTraceInterval);
+    }
+
+    /**
+     * 替换时间戳开关
+     *
+     * @param timing 是否记录时间戳
+     * @return 新选项
+     */
+    public FutureOptions withTiming(boolean timing) {
+        return timing == this.timing
+                ? this
+                : new FutureOptions(interceptor, leakDetector, blockingGuard, waitStrategy, fusion, stackless, timing, asyncTraceInterval);
+    }
+
+    /**
+     * 替换异步调用链抽样间隔
+     *
+     * @param asyncTraceInterval 每{@code N}条接力链记录一条，0表示关闭
+     * @return 新选项
+     */
+    public FutureOptions withAsyncTraceInterval(int asyncTraceInterval) {
+        if (asyncTraceInterval < 0) {
+            throw new IllegalArgumentException("asyncTraceInterval must not be negative");
+        }
+        return asyncTraceInterval == this.asyncTraceInterval
+                ? this
+                : new FutureOptions(interceptor, leakDetector, blockingGuard, waitStrategy, fusion, stackless, timing,
+                asyncTraceInterval);
+    }
+
+}
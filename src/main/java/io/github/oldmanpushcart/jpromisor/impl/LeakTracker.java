@@ -0,0 +1,121 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import io.github.oldmanpushcart.jpromisor.LeakDetector;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Promise泄漏跟踪记录
+ * <p>
+ * 被{@link LeakDetector}抽中的Promise持有一个跟踪记录，Promise被回收后由守护线程{@code jpromisor-leak-detector}
+ * 从引用队列中取出，若其已有监听器或等待者且从未完成，则交给检测器上报。
+ * 守护线程在第一次跟踪时才启动，所有检测器共用
+ * </p>
+ *
+ * @since 1.2.0
+ */
+final class LeakTracker extends PhantomReference<Object> {
+
+    private static final Logger logger = Logger.getLogger(LeakTracker.class.getName());
+
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    /*
+     * 尚未完成的跟踪记录，保证跟踪记录本身在Promise回收前不被回收
+     */
+    private static final Set<LeakTracker> trackers = ConcurrentHashMap.newKeySet();
+
+    private final LeakDetector detector;
+    private final Throwable creation;
+    private volatile boolean observed;
+
+    private LeakTracker(Object referent, LeakDetector detector) {
+        super(referent, queue);
+        this.detector = detector;
+        this.creation = new Throwable("Promise created at");
+    }
+
+    /**
+     * 按检测器的级别抽样跟踪Promise
+     *
+     * @param detector 检测器
+     * @param future   被跟踪的Future
+     * @return 跟踪记录，未被抽中时返回{@code null}
+     */
+    static LeakTracker track(LeakDetector detector, Object future) {
+        switch (detector.getLevel()) {
+            case DISABLED:
+                return null;
+            case SAMPLED:
+                if (ThreadLocalRandom.current().nextInt(detector.getSamplingInterval()) != 0) {
+                    return null;
+                }
+                break;
+            default:
+                break;
+        }
+        Reaper.start();
+        final LeakTracker tracker = new LeakTracker(future, detector);
+        trackers.add(tracker);
+        return tracker;
+    }
+
+    /**
+     * 标记已有监听器或等待者
+     */
+    void observe() {
+        if (!observed) {
+            observed = true;
+        }
+    }
+
+    /**
+     * Promise已完成，结束跟踪
+     */
+    void close() {
+        if (trackers.remove(this)) {
+            clear();
+        }
+    }
+
+    private void report() {
+        if (trackers.remove(this) && observed) {
+            detector.getReporter().onLeak(creation);
+        }
+    }
+
+    /**
+     * 上报已回收的泄漏，类初始化时启动守护线程
+     */
+    private static final class Reaper {
+
+        static {
+            final Thread thread = new Thread(Reaper::loop, "jpromisor-leak-detector");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private static void start() {
+        }
+
+        private static void loop() {
+            while (true) {
+                try {
+                    ((LeakTracker) queue.remove()).report();
+                } catch (InterruptedException cause) {
+                    return;
+                } catch (RuntimeException cause) {
+                    logger.log(Level.WARNING, "leak reporter failed", cause);
+                }
+            }
+        }
+
+    }
+
+}
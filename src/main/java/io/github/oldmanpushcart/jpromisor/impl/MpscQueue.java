@@ -0,0 +1,90 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 多生产者单消费者无锁队列
+ * <p>
+ * 生产者通过一次{@code getAndSet}完成入队，消费者无需任何CAS；
+ * {@link #poll()}同一时刻只允许一个线程调用，由使用方保证
+ * </p>
+ *
+ * @param <E> 元素类型
+ * @since 1.2.0
+ */
+public class MpscQueue<E> {
+
+    /*
+     * 消费端头节点（哨兵），仅消费者线程访问
+     */
+    private Node<E> head;
+
+    /*
+     * 生产端尾节点
+     */
+    private final AtomicReference<Node<E>> tail;
+
+    /**
+     * 多生产者单消费者无锁队列
+     */
+    public MpscQueue() {
+        final Node<E> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * 入队，可被多个线程同时调用
+     *
+     * @param element 元素，不能为空
+     */
+    public void offer(E element) {
+        if (null == element) {
+            throw new NullPointerException();
+        }
+        final Node<E> node = new Node<>(element);
+        final Node<E> prev = tail.getAndSet(node);
+        prev.next = node;
+    }
+
+    /**
+     * 出队，只允许单个消费者调用
+     * <p>
+     * 生产者完成{@code getAndSet}但尚未链接节点的瞬间，这里会返回{@code null}，
+     * 调用方需要据此自行决定是否重试
+     * </p>
+     *
+     * @return 元素，队列为空时返回{@code null}
+     */
+    public E poll() {
+        final Node<E> next = head.next;
+        if (null == next) {
+            return null;
+        }
+        final E element = next.element;
+        next.element = null;
+        head = next;
+        return element;
+    }
+
+    /**
+     * 队列是否为空，只允许消费者调用
+     *
+     * @return TRUE | FALSE
+     */
+    public boolean isEmpty() {
+        return head == tail.get();
+    }
+
+    private static class Node<E> {
+
+        private E element;
+        private volatile Node<E> next;
+
+        private Node(E element) {
+            this.element = element;
+        }
+
+    }
+
+}
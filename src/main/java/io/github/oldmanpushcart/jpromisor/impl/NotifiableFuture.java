@@ -2,9 +2,9 @@ package io.github.oldmanpushcart.jpromisor.impl;
 
 import io.github.oldmanpushcart.jpromisor.*;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.ArrayDeque;
 import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
 
 import static io.github.oldmanpushcart.jpromisor.FutureFunction.identity;
 import static io.github.oldmanpushcart.jpromisor.FutureFunction.throwing;
@@ -16,27 +16,48 @@ import static io.github.oldmanpushcart.jpromisor.FutureFunction.throwing;
  */
 public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V> {
 
-    private static final Executor self = Runnable::run;
+    /*
+     * 同一线程上嵌套通知的最大深度，超过后推迟到最外层通知循环中执行
+     */
+    private static final int maxNotifyDepth = 8;
+
+    private static final ThreadLocal<Trampoline> trampoline = ThreadLocal.withInitial(Trampoline::new);
+
+    /*
+     * 已通知标记，通知后替换监听器链表头
+     */
+    private static final Listening<?> notified = new Listening<>(null, null, null);
+
+    /*
+     * 阻塞等待的线程栈，只有在未完成时阻塞才会分配节点，只通过FutureAccess读写
+     */
+    volatile Waiter waiters;
+
+    /*
+     * 等待通知的监听器双向链表头，新注册的在前，通知时从尾部开始按注册顺序执行；
+     * 通知后指向notified，在this保护下通过FutureAccess写入
+     */
+    volatile Listening<V> head;
 
     /*
-     * 同步器
+     * 选项
      */
-    private final CountDownLatch latch = new CountDownLatch(1);
+    private final FutureOptions options;
 
     /*
-     * 等待通知集合
+     * 泄漏跟踪，未被抽样时为空
      */
-    private final Collection<FutureListener<V>> notifies = new ArrayList<>();
+    private final LeakTracker leak;
 
     /*
-     * 已通知标记
+     * 沿接力链向下游传递的截止时间与异步调用链，都没有时为空
      */
-    private volatile boolean notified;
+    private Lineage lineage;
 
     /*
-     * 监听拦截器
+     * 驱动当前Future的融合阶段，阶段执行完毕后置空，受this保护
      */
-    private final ListeningInterceptor interceptor;
+    private Stage<?, V> stage;
 
     /**
      * 可通知Future
@@ -44,9 +65,7 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
      * @param interceptor 监听拦截器
      */
     public NotifiableFuture(ListeningInterceptor interceptor) {
-        this.interceptor = null != interceptor
-                ? interceptor
-                : ListeningInterceptor.empty;
+        this(FutureOptions.of(interceptor));
     }
 
     /**
@@ -55,7 +74,74 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
      * @since 1.1.0
      */
     public NotifiableFuture() {
-        this(null);
+        this(FutureOptions.defaults);
+    }
+
+    /**
+     * 可通知Future
+     *
+     * @param options 选项
+     * @since 1.2.0
+     */
+    public NotifiableFuture(FutureOptions options) {
+        this(options, true);
+    }
+
+    /*
+     * 接力产生的Future由上游完成，不参与泄漏跟踪
+     */
+    NotifiableFuture(FutureOptions options, boolean tracking) {
+        this.options = options;
+        this.leak = tracking
+                ? LeakTracker.track(options.getLeakDetector(), this)
+                : null;
+    }
+
+    /**
+     * 按选项创建Promise，开启时间戳时创建{@link TimedFuture}
+     *
+     * @param options 选项
+     * @param <V>     类型
+     * @return Promise
+     * @since 1.2.0
+     */
+    public static <V> NotifiableFuture<V> create(FutureOptions options) {
+        return options.isTiming()
+                ? new TimedFuture<>(options)
+                : new NotifiableFuture<>(options);
+    }
+
+    /*
+     * 创建接力产生的Future
+     */
+    static <T> NotifiableFuture<T> derive(FutureOptions options) {
+        return options.isTiming()
+                ? new TimedFuture<>(options, false)
+                : new NotifiableFuture<>(options, false);
+    }
+
+    /*
+     * 按抽样间隔记录接力阶段的创建位置：上游已被抽样时必定记录，保证整条链完整
+     */
+    private AsyncStackTrace.Chain trace(AsyncStackTrace.Chain upstream) {
+        final int interval = options.getAsyncTraceInterval();
+        if (null == upstream
+                && (interval <= 0 || interval > 1 && ThreadLocalRandom.current().nextInt(interval) != 0)) {
+            return null;
+        }
+        return new AsyncStackTrace.Chain(CallSite.capture(), upstream);
+    }
+
+    /*
+     * 完成时的时间戳，由TimedFuture实现
+     */
+    void stampCompleted() {
+    }
+
+    /*
+     * 监听器开始执行时的时间戳，由TimedFuture实现
+     */
+    void stampListening() {
     }
 
     @Override
@@ -86,7 +172,7 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
 
     @Override
     public ListenableFuture<V> await() throws InterruptedException {
-        latch.await();
+        waitDone(Long.MAX_VALUE);
         return this;
     }
 
@@ -135,8 +221,7 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
     @Override
     public boolean tryCancel() {
         if (super.tryCancel()) {
-            latch.countDown();
-            notify(null);
+            onCompleted();
             return true;
         }
         return false;
@@ -145,8 +230,14 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
     @Override
     public boolean tryException(Exception cause) {
         if (super.tryException(cause)) {
-            latch.countDown();
-            notify(null);
+
+            // 被抽样的接力链在唤醒等待者和通知监听器之前附加异步调用链
+            final AsyncStackTrace.Chain trace = trace();
+            if (null != trace) {
+                AsyncStackTrace.attach(cause, trace);
+            }
+
+            onCompleted();
             return true;
         }
         return false;
@@ -155,8 +246,7 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
     @Override
     public boolean trySuccess(V value) {
         if (super.trySuccess(value)) {
-            latch.countDown();
-            notify(null);
+            onCompleted();
             return true;
         }
         return false;
@@ -167,12 +257,275 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
         return trySuccess(null);
     }
 
+    /*
+     * 完成后唤醒等待者并通知监听器
+     */
+    private void onCompleted() {
+        stampCompleted();
+        FlightRecorder.completed(this);
+        releaseWaiters();
+        if (null != leak) {
+            leak.close();
+        }
+
+        // 融合阶段尚未执行便被外部完成（如取消），后续阶段改为监听当前Future
+        if (null != stage) {
+            final Stage<V, ?> next = release();
+            if (null != next) {
+                register(next.executor, next);
+            }
+        }
+
+        notifyListeners();
+    }
+
+    /*
+     * 标记泄漏跟踪：已有监听器或等待者
+     */
+    private void observe() {
+        if (null != leak && !isDone()) {
+            leak.observe();
+        }
+    }
+
+    /*
+     * 等待完成，已完成时无需任何检查
+     */
+    private boolean waitDone(long timeoutNanos) throws InterruptedException {
+        if (isDone()) {
+            return true;
+        }
+        if (null != leak) {
+            leak.observe();
+        }
+        final BlockingGuard guard = options.getBlockingGuard();
+        if (null != guard) {
+            guard.check();
+        }
+        final Object event = FlightRecorder.beginBlocking();
+        final boolean done = options.getWaitStrategy().await(this, this::block, timeoutNanos);
+        FlightRecorder.endBlocking(event, !done);
+        return done;
+    }
+
+    /*
+     * 阻塞直至完成或超时
+     * 在ForkJoinPool工作线程上阻塞时交由池管理，池可以补偿线程，避免嵌套扇出耗尽工作线程
+     */
+    private boolean block(long timeoutNanos) throws InterruptedException {
+        if (Thread.currentThread() instanceof ForkJoinWorkerThread) {
+            final ManagedWaiter waiter = new ManagedWaiter(timeoutNanos);
+            ForkJoinPool.managedBlock(waiter);
+            return isDone();
+        }
+        return await(timeoutNanos);
+    }
+
+    /*
+     * 入栈后挂起当前线程，直至完成、超时或中断
+     */
+    private boolean await(long timeoutNanos) throws InterruptedException {
+        final boolean timed = timeoutNanos != Long.MAX_VALUE;
+        final long deadlineNanos = timed ? System.nanoTime() + timeoutNanos : 0;
+        Waiter node = null;
+        boolean queued = false;
+        while (true) {
+
+            // 入栈后的复查与完成方"写结果再摘栈"交叉，必须为volatile读
+            if (null != FutureAccess.recheck(this)) {
+                if (null != node) {
+                    node.thread = null;
+                }
+                return true;
+            }
+            if (Thread.interrupted()) {
+                removeWaiter(node);
+                throw new InterruptedException();
+            }
+            if (null == node) {
+                node = new Waiter(Thread.currentThread());
+            } else if (!queued) {
+                node.next = FutureAccess.waiters(this);
+                queued = FutureAccess.casWaiters(this, node.next, node);
+            } else if (timed) {
+                final long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    removeWaiter(node);
+                    return isDone();
+                }
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    /*
+     * 完成后摘下整个等待栈并逐个唤醒
+     */
+    private void releaseWaiters() {
+        for (Waiter node = FutureAccess.takeWaiters(this); null != node; node = node.next) {
+            final Thread thread = node.thread;
+            if (null != thread) {
+                node.thread = null;
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /*
+     * 超时或中断的等待者出栈，顺带清理其它已失效的节点
+     */
+    private void removeWaiter(Waiter node) {
+        if (null == node) {
+            return;
+        }
+        node.thread = null;
+        retry:
+        while (true) {
+            for (Waiter pred = null, current = FutureAccess.waiters(this), next; null != current; current = next) {
+                next = current.next;
+                if (null != current.thread) {
+                    pred = current;
+                } else if (null != pred) {
+                    pred.next = next;
+                    if (null == pred.thread) {
+                        continue retry;
+                    }
+                } else if (!FutureAccess.casWaiters(this, current, next)) {
+                    continue retry;
+                }
+            }
+            break;
+        }
+    }
+
+    /**
+     * 等待者节点
+     */
+    static final class Waiter {
+
+        volatile Thread thread;
+        volatile Waiter next;
+
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
+
+    }
+
+    /**
+     * 交由ForkJoinPool管理的等待
+     */
+    private final class ManagedWaiter implements ForkJoinPool.ManagedBlocker {
+
+        private final long deadlineNanos;
+        private final boolean timed;
+
+        private ManagedWaiter(long timeoutNanos) {
+            this.timed = timeoutNanos != Long.MAX_VALUE;
+            this.deadlineNanos = timed ? System.nanoTime() + timeoutNanos : 0;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!timed) {
+                return await(Long.MAX_VALUE);
+            }
+            final long remaining = deadlineNanos - System.nanoTime();
+            return remaining <= 0 || await(remaining);
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return isDone() || timed && deadlineNanos - System.nanoTime() <= 0;
+        }
+
+    }
+
+    @Override
+    public Deadline getDeadline() {
+        return null != lineage ? lineage.deadline : null;
+    }
+
+    @Override
+    public Promise<V> deadline(Deadline deadline) {
+        this.lineage = Lineage.of(deadline, trace());
+        return this;
+    }
+
+    /*
+     * 异步调用链，未被抽样时为空
+     */
+    private AsyncStackTrace.Chain trace() {
+        return null != lineage ? lineage.trace : null;
+    }
+
+    /*
+     * 接力产生的Future继承的上下文，没有新的调用位置时直接共用当前上下文
+     */
+    private Lineage inherit() {
+        final AsyncStackTrace.Chain trace = trace(trace());
+        return null == trace && (null == lineage || null == lineage.trace)
+                ? lineage
+                : Lineage.of(getDeadline(), trace);
+    }
+
+    /*
+     * 截止时间是否已到期
+     */
+    private boolean isExpired() {
+        final Deadline deadline = getDeadline();
+        return null != deadline && deadline.isExpired();
+    }
+
+    /*
+     * 截止时间到期时接力的失败原因
+     * 上游成功时为超时；上游失败时以上游异常作为超时的cause，上游本身即为超时则原样传递。
+     * 上游异常可能同时被其他观察者持有，也可能扇出到多个到期的接力，不能修改它
+     */
+    private Exception deadlineExceeded(ListenableFuture<?> upstream) {
+        if (!upstream.isException()) {
+            return deadlineExceeded();
+        }
+        final Exception cause = upstream.getException();
+        if (cause instanceof TimeoutException) {
+            return cause;
+        }
+        final TimeoutException timeout = deadlineExceeded();
+        timeout.initCause(cause);
+        return timeout;
+    }
+
+    /*
+     * 截止时间到期异常
+     */
+    private TimeoutException deadlineExceeded() {
+        FlightRecorder.timeout("deadline exceeded");
+        return options.isStackless()
+                ? Stackless.timeout("deadline exceeded")
+                : new TimeoutException("deadline exceeded");
+    }
+
+    @Override
+    CancellationException newCancellation() {
+        return options.isStackless()
+                ? Stackless.cancellation()
+                : super.newCancellation();
+    }
+
     @Override
     public ListenableFuture<V> fulfill(Executor executor, FutureFunction.FutureCallable<V> callable) {
         executor.execute(() -> {
             if (isDone()) {
                 return;
             }
+            if (isExpired()) {
+                tryException(deadlineExceeded());
+                return;
+            }
+            final Deadline deadline = getDeadline();
+            final Deadline previous = null != deadline ? Deadline.attach(deadline) : null;
             try {
                 trySuccess(callable.call());
             } catch (InterruptedException cause) {
@@ -180,6 +533,10 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
                 Thread.currentThread().interrupt();
             } catch (Exception cause) {
                 tryException(cause);
+            } finally {
+                if (null != deadline) {
+                    Deadline.attach(previous);
+                }
             }
         });
         return this;
@@ -196,6 +553,12 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
             if (isDone()) {
                 return;
             }
+            if (isExpired()) {
+                tryException(deadlineExceeded());
+                return;
+            }
+            final Deadline deadline = getDeadline();
+            final Deadline previous = null != deadline ? Deadline.attach(deadline) : null;
             try {
                 fn.accept(this);
             } catch (InterruptedException cause) {
@@ -203,6 +566,10 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
                 Thread.currentThread().interrupt();
             } catch (Exception cause) {
                 tryException(cause);
+            } finally {
+                if (null != deadline) {
+                    Deadline.attach(previous);
+                }
             }
         });
         return this;
@@ -248,54 +615,127 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
 
     @Override
     public V get() throws InterruptedException, ExecutionException {
-        latch.await();
+        waitDone(Long.MAX_VALUE);
         return _get();
     }
 
     @Override
     public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        if (!latch.await(timeout, unit)) {
-            throw new TimeoutException();
+        if (!waitDone(Math.min(unit.toNanos(timeout), Long.MAX_VALUE - 1))) {
+            FlightRecorder.timeout("get timed out");
+            throw options.isStackless() ? Stackless.timeout(null) : new TimeoutException();
         }
         return _get();
     }
 
     /**
      * <p>重点，此处为通知核心逻辑!</p>
-     *
-     * @param listener 等待通知的执行器，可为空
+     * <p>摘下整条等待链表后在锁外逐个通知，只有第一次调用生效</p>
      */
-    private void notify(FutureListener<V> listener) {
+    private void notifyListeners() {
 
-        // 立即通知集合
-        final Collection<FutureListener<V>> immediateNotifies = new ArrayList<>();
+        Listening<V> tail;
+        synchronized (this) {
+            tail = FutureAccess.head(this);
+            if (tail == notified) {
+                return;
+            }
 
-        // 监听器加入到立即通知集合，将会在本次完成通知
-        if (null != listener) {
-            immediateNotifies.add(listener);
+            // 标记为已通知，此后移除监听器均会失败，链表可在锁外安全遍历
+            FutureAccess.head(this, notifiedHead());
         }
 
-        // 如果是第一次通知，需要将之前等待的监听器合入
-        if (!notified) {
-            synchronized (this) {
+        // 从尾部开始按注册顺序通知
+        if (null != tail) {
+            while (null != tail.next) {
+                tail = tail.next;
+            }
+        }
+        fireAll(tail);
+
+    }
 
-                // double check
-                if (!notified) {
+    @SuppressWarnings("unchecked")
+    private static <V> Listening<V> notifiedHead() {
+        return (Listening<V>) notified;
+    }
 
-                    // 克隆并清空原有监听器队列
-                    immediateNotifies.addAll(notifies);
-                    notifies.clear();
+    /*
+     * 依次触发监听器链表
+     * 完成一个Future的监听器往往会完成另一个Future，内联执行时层层嵌套；
+     * 嵌套过深时将链表交给当前线程最外层的通知循环，避免长异步递归撑爆调用栈。
+     * 只用于完成时的通知，向已完成的Future注册的监听器仍在注册返回前执行
+     */
+    private static void fireAll(Listening<?> tail) {
+        if (null == tail) {
+            return;
+        }
 
-                    // 标记为已通知
-                    notified = true;
+        final Trampoline t = trampoline.get();
+        if (t.depth >= maxNotifyDepth) {
+            t.deferred.offer(tail);
+            return;
+        }
 
-                }
+        t.depth++;
+        try {
+            fire(tail);
+            drain(t, null);
+        } catch (RuntimeException | Error cause) {
+
+            // 当前链表的监听器抛出异常时，被推迟的链表仍需执行完，否则会滞留在线程中
+            drain(t, cause);
+            throw cause;
+        } finally {
+            t.depth--;
+        }
+    }
 
+    /*
+     * 最外层通知循环负责执行被推迟的链表
+     * 被推迟的链表属于互不相关的Future，任一监听器抛出异常（含执行器拒绝）都不能影响其余监听器，
+     * 全部执行完后再抛出：当前已有异常时附加为被抑制异常，否则抛出第一个异常
+     */
+    private static void drain(Trampoline t, Throwable failure) {
+        if (1 != t.depth) {
+            return;
+        }
+        Throwable first = failure;
+        Listening<?> deferred;
+        while (null != (deferred = t.deferred.poll())) {
+            for (Listening<?> node = deferred; null != node; node = node.prev) {
+                try {
+                    node.fire();
+                } catch (RuntimeException | Error cause) {
+                    if (null == first) {
+                        first = cause;
+                    } else {
+                        first.addSuppressed(cause);
+                    }
+                }
             }
         }
+        if (null == failure && first instanceof Error) {
+            throw (Error) first;
+        }
+        if (null == failure && null != first) {
+            throw (RuntimeException) first;
+        }
+    }
 
-        // 立即进行通知
-        immediateNotifies.forEach(notify -> notify.onDone(this));
+    private static void fire(Listening<?> tail) {
+        for (Listening<?> node = tail; null != node; node = node.prev) {
+            node.fire();
+        }
+    }
+
+    /**
+     * 通知蹦床，记录当前线程的通知嵌套深度及被推迟的监听器链表
+     */
+    private static final class Trampoline {
+
+        private final ArrayDeque<Listening<?>> deferred = new ArrayDeque<>();
+        private int depth;
 
     }
 
@@ -306,78 +746,136 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
 
     @Override
     public ListenableFuture<V> appendListener(Executor executor, FutureListener<V> listener) {
+        register(executor, listener);
+        return this;
+    }
 
-        // 将监听器封装为异步执行
-        final FutureListener<V> wrap = new FutureListener<V>() {
+    @Override
+    public ListenerRegistration register(FutureListener<V> listener) {
+        return register(self, listener);
+    }
 
-            @Override
-            public void onDone(ListenableFuture<V> future) {
+    @Override
+    public ListenerRegistration register(Executor executor, FutureListener<V> listener) {
+        final Listening<V> node = new Listening<>(this, executor, listener);
 
-                // 判断是否需要跳过当前listener
-                if (listener instanceof FutureListener.OnSuccess) {
-                    if (!isSuccess()) {
-                        return;
-                    }
-                } else if (listener instanceof FutureListener.OnCancelled) {
-                    if (!isCancelled()) {
-                        return;
-                    }
-                } else if (listener instanceof FutureListener.OnException) {
-                    if (!isException()) {
-                        return;
-                    }
-                } else if (listener instanceof FutureListener.OnFailure) {
-                    if (!isException() && !isCancelled()) {
-                        return;
+        // 如若从未进行过通知，则将监听器加入到等待通知链表
+        if (FutureAccess.head(this) != notified) {
+            synchronized (this) {
+                final Listening<V> first = FutureAccess.head(this);
+                if (first != notified) {
+                    if (null != first) {
+                        node.next = first;
+                        first.prev = node;
                     }
+                    FutureAccess.head(this, node);
+                    observe();
+                    return node;
                 }
+            }
+        }
 
-                // 执行监听器
-                executor.execute(() -> interceptor.onListening(NotifiableFuture.this, listener));
+        // 如果已通知过，则需要自行进行通知；
+        // 与已完成的Future一致，注册返回前监听器已执行，不受通知嵌套深度限制
+        node.fire();
+        return node;
+    }
+
+    /*
+     * 从等待通知链表中摘除
+     */
+    private synchronized boolean unlink(Listening<V> node) {
+        if (FutureAccess.head(this) == notified || node.removed) {
+            return false;
+        }
+        if (null == node.prev) {
+            FutureAccess.head(this, node.next);
+        } else {
+            node.prev.next = node.next;
+        }
+        if (null != node.next) {
+            node.next.prev = node.prev;
+        }
+        node.prev = node.next = null;
+        node.removed = true;
+        return true;
+    }
 
+    @Override
+    public ListenableFuture<V> removeListener(FutureListener<V> target) {
+        synchronized (this) {
+            Listening<V> node = FutureAccess.head(this);
+            while (null != node && node != notified) {
+                final Listening<V> next = node.next;
+                if (node.listener == target) {
+                    unlink(node);
+                }
+                node = next;
             }
+        }
+        return this;
+    }
 
-            @Override
-            public int hashCode() {
-                return listener.hashCode();
+    /**
+     * 监听器节点
+     * <p>
+     * 监听器关心的状态在注册时一次性解析为掩码，通知时只需一次位运算；
+     * 节点自身即为{@link Runnable}，交给执行器时无需再分配对象，当前线程执行时直接调用
+     * </p>
+     *
+     * @param <V> 类型
+     */
+    static final class Listening<V> implements ListenerRegistration, Runnable {
+
+        private final NotifiableFuture<V> future;
+        private final Executor executor;
+        private final FutureListener<V> listener;
+        private final int mask;
+
+        // 以下字段受future保护
+        private Listening<V> prev;
+        private Listening<V> next;
+        private boolean removed;
+
+        private Listening(NotifiableFuture<V> future, Executor executor, FutureListener<V> listener) {
+            this.future = future;
+            this.executor = executor;
+            this.listener = listener;
+            this.mask = maskOf(listener);
+        }
+
+        private void fire() {
+
+            // 判断是否需要跳过当前listener
+            if ((mask & future.doneMask()) == 0) {
+                return;
             }
 
-            @Override
-            public boolean equals(Object obj) {
-                if (!(obj instanceof FutureListener)) {
-                    return false;
-                }
-                return listener.equals(obj);
+            // 执行监听器，已在目标事件循环上时直接执行
+            if (isInline(executor)) {
+                run();
+            } else {
+                executor.execute(this);
             }
 
-        };
+        }
 
-        // 如若从未进行过通知，则将监听器加入到等待通知集合
-        if (!notified) {
-            synchronized (this) {
-                if (!notified) {
-                    notifies.add(wrap);
-                    return this;
-                }
+        @Override
+        public void run() {
+            future.stampListening();
+            final Object event = FlightRecorder.beginListener();
+            try {
+                future.options.getInterceptor().onListening(future, listener);
+            } finally {
+                FlightRecorder.endListener(event, executor, listener);
             }
         }
 
-        // 如果已通知过，则需要自行进行通知
-        notify(wrap);
-        return this;
-    }
-
-    @Override
-    public ListenableFuture<V> removeListener(FutureListener<V> target) {
-        synchronized (this) {
-            /*
-             * 因为notifies中存放的数据已经被wrap过了，
-             * 所以这里不能直接用remove
-             */
-            notifies.removeIf(listener ->
-                    listener.hashCode() == target.hashCode() && listener.equals(target));
+        @Override
+        public boolean remove() {
+            return future.unlink(this);
         }
-        return this;
+
     }
 
     @Override
@@ -407,48 +905,264 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
 
     @Override
     public <T> ListenableFuture<T> then(Executor executor, FutureFunction<V, T> success, FutureFunction<Exception, T> exception) {
-        final NotifiableFuture<T> thenF = new NotifiableFuture<>(interceptor);
+        final NotifiableFuture<T> thenF = derive(options);
+        thenF.lineage = inherit();
+
+        // 阶段融合：能接在当前流水线后面则无需再注册监听器
+        if (options.isFusion()) {
+            final Stage<V, T> next = new Stage<>(thenF, executor, success, exception);
+            thenF.stage = next;
+            if (!fuse(next)) {
+                appendListener(executor, next);
+            }
+            return thenF;
+        }
 
         // 监听器挂钩
-        onDone(executor, future -> {
+        onDone(executor, future -> relay(thenF, future, success, exception));
+        return thenF;
+    }
 
-            // exception
-            if (future.isException()) {
-                try {
-                    thenF.trySuccess(exception.apply(future.getException()));
-                } catch (InterruptedException cause) {
-                    thenF.tryCancel();
-                    Thread.currentThread().interrupt();
-                } catch (Exception cause) {
-                    thenF.tryException(cause);
-                }
+    /*
+     * 当前Future由同一执行器上的融合阶段驱动且尚未执行完毕时，将下一阶段接在其后
+     */
+    private synchronized boolean fuse(Stage<V, ?> next) {
+        if (null == stage || null != stage.next || stage.executor != next.executor || isDone()) {
+            return false;
+        }
+        stage.next = next;
+        return true;
+    }
+
+    /*
+     * 融合阶段开始执行，此后当前Future只能由该阶段驱动后续阶段
+     */
+    private synchronized boolean claim() {
+        if (null == stage) {
+            return false;
+        }
+        stage.running = true;
+        return true;
+    }
+
+    /*
+     * 融合阶段尚未执行便被外部完成，摘下接在其后的下一阶段
+     */
+    private synchronized Stage<V, ?> release() {
+        if (null == stage || stage.running) {
+            return null;
+        }
+        final Stage<V, ?> next = stage.next;
+        stage = null;
+        return next;
+    }
+
+    /*
+     * 当前Future已由融合阶段完成，摘下接在其后的下一阶段
+     */
+    private synchronized Stage<V, ?> detach() {
+        final Stage<V, ?> next = null != stage ? stage.next : null;
+        stage = null;
+        return next;
+    }
+
+    /*
+     * 接力：将上游的结果经接力函数转换后完成下游
+     */
+    private static <V, T> void relay(NotifiableFuture<T> thenF, ListenableFuture<V> future,
+                                     FutureFunction<V, T> success, FutureFunction<Exception, T> exception) {
+
+        // cancelled
+        if (future.isCancelled()) {
+            thenF.tryCancel();
+            return;
+        }
+
+        // 截止时间已到期，不再执行接力函数
+        final Deadline deadline = thenF.getDeadline();
+        if (thenF.isExpired()) {
+            thenF.tryException(thenF.deadlineExceeded(future));
+            return;
+        }
+
+        final Deadline previous = null != deadline ? Deadline.attach(deadline) : null;
+        try {
+            apply(thenF, future, success, exception);
+        } finally {
+            if (null != deadline) {
+                Deadline.attach(previous);
             }
+        }
 
-            // cancelled
-            else if (future.isCancelled()) {
+    }
+
+    /*
+     * 沿接力链向下游传递的上下文，不可变；两项都没有时不创建，未使用这些特性的Future不为此多占空间
+     */
+    private static final class Lineage {
+
+        private final Deadline deadline;
+        private final AsyncStackTrace.Chain trace;
+
+        private Lineage(Deadline deadline, AsyncStackTrace.Chain trace) {
+            this.deadline = deadline;
+            this.trace = trace;
+        }
+
+        private static Lineage of(Deadline deadline, AsyncStackTrace.Chain trace) {
+            return null == deadline && null == trace
+                    ? null
+                    : new Lineage(deadline, trace);
+        }
+
+    }
+
+    /**
+     * 融合阶段
+     * <p>
+     * 同一执行器上连续接力的阶段串成一条单向链表，只有首个阶段作为监听器注册在上游，
+     * 上游完成后在一次派发中循环执行整条流水线，每个阶段的结果作为下一阶段的上游
+     * </p>
+     *
+     * @param <V> 上游类型
+     * @param <T> 下游类型
+     */
+    private static final class Stage<V, T> implements FutureListener<V> {
+
+        private final NotifiableFuture<T> target;
+        private final Executor executor;
+        private final FutureFunction<V, T> success;
+        private final FutureFunction<Exception, T> exception;
+
+        // 以下字段受target保护
+        private Stage<T, ?> next;
+        private boolean running;
+
+        private Stage(NotifiableFuture<T> target, Executor executor,
+                      FutureFunction<V, T> success, FutureFunction<Exception, T> exception) {
+            this.target = target;
+            this.executor = executor;
+            this.success = success;
+            this.exception = exception;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        @Override
+        public void onDone(ListenableFuture<V> future) {
+            ListenableFuture source = future;
+            Stage current = this;
+            while (null != current && current.target.claim()) {
+                relay(current.target, source, current.success, current.exception);
+                source = current.target;
+                current = current.target.detach();
+            }
+        }
+
+    }
+
+    /*
+     * 执行接力函数
+     */
+    private static <V, T> void apply(NotifiableFuture<T> thenF, ListenableFuture<V> future,
+                           FutureFunction<V, T> success, FutureFunction<Exception, T> exception) {
+
+        // exception
+        if (future.isException()) {
+            try {
+                thenF.trySuccess(exception.apply(future.getException()));
+            } catch (InterruptedException cause) {
                 thenF.tryCancel();
+                Thread.currentThread().interrupt();
+            } catch (Exception cause) {
+                thenF.tryException(cause);
             }
+        }
 
-            // success
-            else if (future.isSuccess()) {
-                try {
-                    thenF.trySuccess(success.apply(getSuccess()));
-                } catch (InterruptedException cause) {
-                    thenF.tryCancel();
-                    Thread.currentThread().interrupt();
-                } catch (Exception cause) {
-                    thenF.tryException(cause);
-                }
+        // success
+        else if (future.isSuccess()) {
+            try {
+                thenF.trySuccess(success.apply(future.getSuccess()));
+            } catch (InterruptedException cause) {
+                thenF.tryCancel();
+                Thread.currentThread().interrupt();
+            } catch (Exception cause) {
+                thenF.tryException(cause);
             }
+        }
 
-            // other
-            else {
-                throw new IllegalStateException();
+        // other
+        else {
+            throw new IllegalStateException();
+        }
+
+    }
+
+    @Override
+    public <T> ListenableFuture<T> flatSuccess(FutureFunction<V, ListenableFuture<T>> fn) {
+        return flatSuccess(self, fn);
+    }
+
+    @Override
+    public <T> ListenableFuture<T> flatSuccess(Executor executor, FutureFunction<V, ListenableFuture<T>> fn) {
+        return compose(executor, fn, throwing());
+    }
+
+    @Override
+    public <T> ListenableFuture<T> compose(FutureFunction<V, ListenableFuture<T>> success,
+                                           FutureFunction<Exception, ListenableFuture<T>> exception) {
+        return compose(self, success, exception);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> ListenableFuture<T> compose(Executor executor,
+                                           FutureFunction<V, ListenableFuture<T>> success,
+                                           FutureFunction<Exception, ListenableFuture<T>> exception) {
+        final NotifiableFuture<T> composeF = derive(options);
+        final Deadline deadline = getDeadline();
+        composeF.lineage = inherit();
+
+        // 内层Future直接赋值给结果，内层完成后只需一跳
+        onDone(executor, future -> {
+
+            // cancelled
+            if (future.isCancelled()) {
+                composeF.tryCancel();
+                return;
+            }
+
+            // 截止时间已到期，不再执行接力函数
+            if (isExpired()) {
+                composeF.tryException(deadlineExceeded(future));
+                return;
+            }
+
+            final Deadline previous = null != deadline ? Deadline.attach(deadline) : null;
+            try {
+                final ListenableFuture<T> inner = future.isSuccess()
+                        ? success.apply(future.getSuccess())
+                        : exception.apply(future.getException());
+                if (null == inner) {
+                    composeF.tryException(new NullPointerException("composed future is null"));
+                } else if (inner instanceof NotifiableFuture) {
+                    ((NotifiableFuture<T>) inner).assign(self, composeF, null);
+                } else {
+                    inner.assign(composeF);
+                }
+            } catch (InterruptedException cause) {
+                composeF.tryCancel();
+                Thread.currentThread().interrupt();
+            } catch (Exception cause) {
+                composeF.tryException(cause);
+            } finally {
+                if (null != deadline) {
+                    Deadline.attach(previous);
+                }
             }
 
         });
 
-        return thenF;
+        return composeF;
     }
 
     @Override
@@ -458,6 +1172,13 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
 
     @Override
     public <P extends Promise<V>> P assign(Executor executor, P promise) {
+        return assign(executor, promise, trace(trace()));
+    }
+
+    /*
+     * 赋值，被抽样时失败原因附加赋值位置的异步调用链；compose内部的赋值不记录
+     */
+    private <P extends Promise<V>> P assign(Executor executor, P promise, AsyncStackTrace.Chain chain) {
 
         /*
          * 如果需要赋值的是他自己，则直接返回
@@ -473,6 +1194,9 @@ public class NotifiableFuture<V> extends StatefulFuture<V> implements Promise<V>
 
         onDone(executor, future -> {
             if (future.isException()) {
+                if (null != chain) {
+                    AsyncStackTrace.attach(future.getException(), chain);
+                }
                 promise.tryException(future.getException());
             } else if (future.isCancelled()) {
                 promise.tryCancel();
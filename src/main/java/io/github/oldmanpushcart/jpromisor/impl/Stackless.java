@@ -0,0 +1,65 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 不填充堆栈的内部异常
+ * <p>
+ * 取消、超时等由框架内部产生的异常，其堆栈只指向框架自身，对排查问题帮助有限；
+ * 开启{@link FutureOptions#isStackless()}后改用这里的异常，省去{@code fillInStackTrace}的开销
+ * </p>
+ *
+ * @since 1.2.0
+ */
+final class Stackless {
+
+    private Stackless() {
+    }
+
+    /**
+     * 取消异常
+     *
+     * @return 取消异常
+     */
+    static CancellationException cancellation() {
+        return new StacklessCancellationException();
+    }
+
+    /**
+     * 超时异常
+     *
+     * @param message 异常信息
+     * @return 超时异常
+     */
+    static TimeoutException timeout(String message) {
+        return new StacklessTimeoutException(message);
+    }
+
+    private static final class StacklessCancellationException extends CancellationException {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+    }
+
+    private static final class StacklessTimeoutException extends TimeoutException {
+
+        private static final long serialVersionUID = 1L;
+
+        private StacklessTimeoutException(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+    }
+
+}
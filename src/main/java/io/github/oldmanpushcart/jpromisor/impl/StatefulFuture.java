@@ -1,9 +1,11 @@
 package io.github.oldmanpushcart.jpromisor.impl;
 
+import io.github.oldmanpushcart.jpromisor.EventLoop;
+import io.github.oldmanpushcart.jpromisor.FutureListener;
 import io.github.oldmanpushcart.jpromisor.ListenableFuture;
 
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -13,64 +15,137 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 abstract class StatefulFuture<V> implements ListenableFuture<V> {
 
-    private final AtomicReference<StateResult> resultRef = new AtomicReference<>();
+    /**
+     * 成功状态掩码
+     */
+    static final int SUCCESS = 1;
+
+    /**
+     * 异常状态掩码
+     */
+    static final int EXCEPTION = 1 << 1;
+
+    /**
+     * 取消状态掩码
+     */
+    static final int CANCEL = 1 << 2;
+
+    /**
+     * 内联执行器，在当前线程直接执行
+     */
+    static final Executor self = Runnable::run;
+
+    /**
+     * 解析监听器关心的完成状态
+     *
+     * @param listener 监听器
+     * @return 完成状态掩码
+     */
+    static int maskOf(FutureListener<?> listener) {
+        if (listener instanceof FutureListener.OnSuccess) {
+            return SUCCESS;
+        } else if (listener instanceof FutureListener.OnCancelled) {
+            return CANCEL;
+        } else if (listener instanceof FutureListener.OnException) {
+            return EXCEPTION;
+        } else if (listener instanceof FutureListener.OnFailure) {
+            return EXCEPTION | CANCEL;
+        } else {
+            return SUCCESS | EXCEPTION | CANCEL;
+        }
+    }
+
+    /**
+     * 监听器能否在当前线程直接执行：内联执行器，或当前已在目标事件循环上
+     *
+     * @param executor 执行器
+     * @return TRUE | FALSE
+     */
+    static boolean isInline(Executor executor) {
+        return executor == self
+                || executor instanceof EventLoop && ((EventLoop) executor).inEventLoop();
+    }
+
+    /*
+     * 以null成功时存放的占位值
+     */
+    private static final Object nil = new Object();
 
-    private boolean _isDone(StateResult result) {
+    /*
+     * 完成结果：未完成时为空；成功时直接存放成功值，无需额外分配；失败时存放StateResult。
+     * 只通过FutureAccess读写
+     */
+    volatile Object result;
+
+    private boolean _isDone(Object result) {
         return null != result;
     }
 
-    private boolean _isCancelled(StateResult result) {
-        return _isDone(result) && result.state == State.CANCEL;
+    private boolean _isCancelled(Object result) {
+        return result instanceof StateResult && ((StateResult) result).state == State.CANCEL;
     }
 
-    private boolean _isException(StateResult result) {
-        return _isDone(result) && result.state == State.EXCEPTION;
+    private boolean _isException(Object result) {
+        return result instanceof StateResult && ((StateResult) result).state == State.EXCEPTION;
     }
 
-    private boolean _isSuccess(StateResult result) {
-        return _isDone(result) && result.state == State.SUCCESS;
+    private boolean _isSuccess(Object result) {
+        return _isDone(result) && !(result instanceof StateResult);
     }
 
-    private boolean _isFailure(StateResult result) {
-        return _isException(result) || _isCancelled(result);
+    private boolean _isFailure(Object result) {
+        return result instanceof StateResult;
     }
 
     @Override
     public boolean isFailure() {
-        return _isFailure(resultRef.get());
+        return _isFailure(FutureAccess.result(this));
     }
 
     @Override
     public boolean isSuccess() {
-        return _isSuccess(resultRef.get());
+        return _isSuccess(FutureAccess.result(this));
     }
 
     @Override
     public boolean isException() {
-        return _isException(resultRef.get());
+        return _isException(FutureAccess.result(this));
     }
 
     @Override
     public boolean isCancelled() {
-        return _isCancelled(resultRef.get());
+        return _isCancelled(FutureAccess.result(this));
     }
 
     @Override
     public boolean isDone() {
-        return _isDone(resultRef.get());
+        return _isDone(FutureAccess.result(this));
     }
 
     @Override
     public Exception getException() {
-        final StateResult result = resultRef.get();
-        return _isFailure(result) ? (Exception) result.value : null;
+        final Object result = FutureAccess.result(this);
+        return _isFailure(result) ? (Exception) ((StateResult) result).value : null;
+    }
+
+    /**
+     * 完成状态掩码
+     *
+     * @return {@link #SUCCESS} | {@link #EXCEPTION} | {@link #CANCEL}，未完成时返回0
+     */
+    int doneMask() {
+        final Object result = FutureAccess.result(this);
+        if (!_isDone(result)) {
+            return 0;
+        }
+        return _isFailure(result) ? ((StateResult) result).state.mask : SUCCESS;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public V getSuccess() {
-        final StateResult result = resultRef.get();
-        return _isSuccess(result) ? (V) result.value : null;
+        final Object result = FutureAccess.result(this);
+        return _isSuccess(result) && result != nil ? (V) result : null;
     }
 
     /**
@@ -79,7 +154,17 @@ abstract class StatefulFuture<V> implements ListenableFuture<V> {
      * @return TRUE | FALSE
      */
     boolean tryCancel() {
-        return resultRef.compareAndSet(null, new StateResult(State.CANCEL, new CancellationException()));
+        return null == FutureAccess.result(this)
+                && FutureAccess.complete(this, new StateResult(State.CANCEL, newCancellation()));
+    }
+
+    /**
+     * 创建取消异常
+     *
+     * @return 取消异常
+     */
+    CancellationException newCancellation() {
+        return new CancellationException();
     }
 
     /**
@@ -89,7 +174,8 @@ abstract class StatefulFuture<V> implements ListenableFuture<V> {
      * @return TRUE | FALSE
      */
     boolean tryException(Exception cause) {
-        return resultRef.compareAndSet(null, new StateResult(State.EXCEPTION, cause));
+        return null == FutureAccess.result(this)
+                && FutureAccess.complete(this, new StateResult(State.EXCEPTION, cause));
     }
 
     /**
@@ -99,36 +185,36 @@ abstract class StatefulFuture<V> implements ListenableFuture<V> {
      * @return TRUE | FALSE
      */
     boolean trySuccess(V value) {
-        return resultRef.compareAndSet(null, new StateResult(State.SUCCESS, value));
+        return FutureAccess.complete(this, null == value ? nil : value);
     }
 
     /**
-     * 状态
+     * 失败状态
      * EXCEPTIONAL
-     * SUCCESSFUL
      * CANCELLED
      */
     private enum State {
 
-        /**
-         * 成功
-         */
-        SUCCESS,
-
         /**
          * 异常
          */
-        EXCEPTION,
+        EXCEPTION(StatefulFuture.EXCEPTION),
 
         /**
          * 取消
          */
-        CANCEL
+        CANCEL(StatefulFuture.CANCEL);
+
+        private final int mask;
+
+        State(int mask) {
+            this.mask = mask;
+        }
 
     }
 
     /**
-     * 状态结果
+     * 失败结果
      */
     private static class StateResult {
 
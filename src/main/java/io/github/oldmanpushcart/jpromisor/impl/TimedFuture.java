@@ -0,0 +1,71 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import io.github.oldmanpushcart.jpromisor.Timing;
+
+import java.util.Arrays;
+
+/**
+ * 记录时间戳的可通知Future
+ * <p>
+ * 时间戳字段只存在于这个子类上，未开启时不增加{@link NotifiableFuture}的内存占用
+ * </p>
+ *
+ * @param <V> 类型
+ * @since 1.2.0
+ */
+public class TimedFuture<V> extends NotifiableFuture<V> implements Timing {
+
+    private final long createdNanos = System.nanoTime();
+    private volatile long completedNanos;
+
+    /*
+     * 监听器开始执行的时间，受this保护
+     */
+    private long[] listenerStartedNanos = new long[2];
+    private int listenerStartedCount;
+
+    /**
+     * 记录时间戳的可通知Future
+     *
+     * @param options 选项
+     */
+    public TimedFuture(FutureOptions options) {
+        super(options);
+    }
+
+    TimedFuture(FutureOptions options, boolean tracking) {
+        super(options, tracking);
+    }
+
+    @Override
+    void stampCompleted() {
+        completedNanos = System.nanoTime();
+    }
+
+    @Override
+    void stampListening() {
+        final long now = System.nanoTime();
+        synchronized (this) {
+            if (listenerStartedCount == listenerStartedNanos.length) {
+                listenerStartedNanos = Arrays.copyOf(listenerStartedNanos, listenerStartedCount << 1);
+            }
+            listenerStartedNanos[listenerStartedCount++] = now;
+        }
+    }
+
+    @Override
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    @Override
+    public long getCompletedNanos() {
+        return completedNanos;
+    }
+
+    @Override
+    public synchronized long[] getListenerStartedNanos() {
+        return Arrays.copyOf(listenerStartedNanos, listenerStartedCount);
+    }
+
+}
@@ -0,0 +1,28 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+/**
+ * 调用位置
+ * <p>
+ * 通过{@link StackWalker}惰性遍历栈帧，找到第一个用户代码栈帧即停止，无需填充整条堆栈
+ * </p>
+ *
+ * @since 1.2.0
+ */
+final class CallSite {
+
+    static final String internal = "io.github.oldmanpushcart.jpromisor.impl.";
+
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    private CallSite() {
+    }
+
+    static StackTraceElement capture() {
+        return walker.walk(frames -> frames
+                .filter(frame -> !frame.getClassName().startsWith(internal))
+                .findFirst()
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .orElse(null));
+    }
+
+}
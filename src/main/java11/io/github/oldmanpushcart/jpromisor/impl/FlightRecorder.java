@@ -0,0 +1,67 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import io.github.oldmanpushcart.jpromisor.FutureListener;
+import io.github.oldmanpushcart.jpromisor.ListenableFuture;
+
+import java.util.concurrent.Executor;
+
+/**
+ * JFR事件埋点
+ * <p>
+ * 产生Promise完成、监听器执行、阻塞等待及超时事件，具体事件见{@link JfrEvents}。
+ * jlink裁剪后的运行时可能没有{@code jdk.jfr}模块，此时所有埋点退化为空实现，不会加载任何JFR类
+ * </p>
+ *
+ * @since 1.2.0
+ */
+final class FlightRecorder {
+
+    private static final boolean available = isAvailable();
+
+    private FlightRecorder() {
+    }
+
+    private static boolean isAvailable() {
+        if (!ModuleLayer.boot().findModule("jdk.jfr").isPresent()) {
+            return false;
+        }
+        try {
+            return JfrEvents.available();
+        } catch (LinkageError cause) {
+            return false;
+        }
+    }
+
+    static Object beginListener() {
+        return available ? JfrEvents.beginListener() : null;
+    }
+
+    static void endListener(Object event, Executor executor, FutureListener<?> listener) {
+        if (null != event) {
+            JfrEvents.endListener(event, executor, listener);
+        }
+    }
+
+    static Object beginBlocking() {
+        return available ? JfrEvents.beginBlocking() : null;
+    }
+
+    static void endBlocking(Object event, boolean timedOut) {
+        if (null != event) {
+            JfrEvents.endBlocking(event, timedOut);
+        }
+    }
+
+    static void completed(ListenableFuture<?> future) {
+        if (available) {
+            JfrEvents.completed(future);
+        }
+    }
+
+    static void timeout(String reason) {
+        if (available) {
+            JfrEvents.timeout(reason);
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Future核心字段的原子访问
+ * <p>
+ * 监听器链表头的写入都在锁内，只需让读到它的线程看到写入前的一切，读取使用acquire、写入使用release；
+ * 完成结果的普通读取同样使用acquire
+ * </p>
+ * <p>
+ * 完成与挂起等待者之间是一次交叉判断：等待者先入栈再检查结果，完成方先写结果再摘栈。
+ * 两边都是"先写后读"，acquire/release不禁止后面的读越过前面的写（StoreLoad重排），
+ * 弱内存模型平台上可能出现等待者没读到结果、完成方也没看到等待者而永久挂起。
+ * 因此完成结果的写入及入栈后的复查必须使用volatile语义，与等待栈的volatile访问构成全序
+ * </p>
+ *
+ * @since 1.2.0
+ */
+final class FutureAccess {
+
+    private static final VarHandle result;
+    private static final VarHandle head;
+    private static final VarHandle waiters;
+
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            result = lookup.findVarHandle(StatefulFuture.class, "result", Object.class);
+            head = lookup.findVarHandle(NotifiableFuture.class, "head", NotifiableFuture.Listening.class);
+            waiters = lookup.findVarHandle(NotifiableFuture.class, "waiters", NotifiableFuture.Waiter.class);
+        } catch (ReflectiveOperationException cause) {
+            throw new ExceptionInInitializerError(cause);
+        }
+    }
+
+    private FutureAccess() {
+    }
+
+    static Object result(StatefulFuture<?> future) {
+        return result.getAcquire(future);
+    }
+
+    /*
+     * 等待者入栈后的复查，必须为volatile读，见类注释
+     */
+    static Object recheck(StatefulFuture<?> future) {
+        return result.getVolatile(future);
+    }
+
+    /*
+     * 写入后紧接着摘等待栈，必须为volatile写，见类注释
+     */
+    static boolean complete(StatefulFuture<?> future, Object update) {
+        return result.compareAndSet(future, null, update);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> NotifiableFuture.Listening<V> head(NotifiableFuture<V> future) {
+        return (NotifiableFuture.Listening<V>) head.getAcquire(future);
+    }
+
+    static <V> void head(NotifiableFuture<V> future, NotifiableFuture.Listening<V> update) {
+        head.setRelease(future, update);
+    }
+
+    static NotifiableFuture.Waiter waiters(NotifiableFuture<?> future) {
+        return (NotifiableFuture.Waiter) waiters.getVolatile(future);
+    }
+
+    static boolean casWaiters(NotifiableFuture<?> future, NotifiableFuture.Waiter expect, NotifiableFuture.Waiter update) {
+        return waiters.compareAndSet(future, expect, update);
+    }
+
+    static NotifiableFuture.Waiter takeWaiters(NotifiableFuture<?> future) {
+        return (NotifiableFuture.Waiter) waiters.getAndSet(future, null);
+    }
+
+}
@@ -0,0 +1,153 @@
+package io.github.oldmanpushcart.jpromisor.impl;
+
+import io.github.oldmanpushcart.jpromisor.FutureListener;
+import io.github.oldmanpushcart.jpromisor.ListenableFuture;
+import jdk.jfr.*;
+
+import java.util.concurrent.Executor;
+
+/**
+ * JFR事件
+ * <p>
+ * 事件未开启时每个埋点只有一次{@link EventType#isEnabled()}判断；
+ * 监听器执行与阻塞等待带阈值，只记录慢事件，阈值可在JFR配置中调整。
+ * 只能经由{@link FlightRecorder}访问，运行时缺少{@code jdk.jfr}模块时不会被加载
+ * </p>
+ *
+ * @since 1.2.0
+ */
+final class JfrEvents {
+
+    private static final EventType completedType = EventType.getEventType(PromiseCompletedEvent.class);
+    private static final EventType listenerType = EventType.getEventType(ListenerExecutionEvent.class);
+    private static final EventType blockingType = EventType.getEventType(BlockingWaitEvent.class);
+    private static final EventType timeoutType = EventType.getEventType(TimeoutEvent.class);
+
+    private JfrEvents() {
+    }
+
+    /*
+     * 触发类初始化，缺少jdk.jfr时抛出LinkageError
+     */
+    static boolean available() {
+        return null != completedType;
+    }
+
+    static Object beginListener() {
+        if (!listenerType.isEnabled()) {
+            return null;
+        }
+        final ListenerExecutionEvent event = new ListenerExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endListener(Object event, Executor executor, FutureListener<?> listener) {
+        if (null == event) {
+            return;
+        }
+        final ListenerExecutionEvent listenerEvent = (ListenerExecutionEvent) event;
+        listenerEvent.end();
+        if (listenerEvent.shouldCommit()) {
+            listenerEvent.executor = executor.getClass().getName();
+            listenerEvent.listener = listener.getClass().getName();
+            listenerEvent.commit();
+        }
+    }
+
+    static Object beginBlocking() {
+        if (!blockingType.isEnabled()) {
+            return null;
+        }
+        final BlockingWaitEvent event = new BlockingWaitEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endBlocking(Object event, boolean timedOut) {
+        if (null == event) {
+            return;
+        }
+        final BlockingWaitEvent blockingEvent = (BlockingWaitEvent) event;
+        blockingEvent.end();
+        if (blockingEvent.shouldCommit()) {
+            blockingEvent.timedOut = timedOut;
+            blockingEvent.commit();
+        }
+    }
+
+    static void completed(ListenableFuture<?> future) {
+        if (!completedType.isEnabled()) {
+            return;
+        }
+        final PromiseCompletedEvent event = new PromiseCompletedEvent();
+        event.state = future.isSuccess() ? "SUCCESS" : future.isCancelled() ? "CANCEL" : "EXCEPTION";
+        event.future = future.getClass().getName();
+        event.commit();
+    }
+
+    static void timeout(String reason) {
+        if (!timeoutType.isEnabled()) {
+            return;
+        }
+        final TimeoutEvent event = new TimeoutEvent();
+        event.reason = reason;
+        event.commit();
+    }
+
+    @Name("jpromisor.PromiseCompleted")
+    @Label("Promise Completed")
+    @Category("jpromisor")
+    @Description("A promise was completed; disabled by default because it fires for every promise")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class PromiseCompletedEvent extends Event {
+
+        @Label("State")
+        String state;
+
+        @Label("Future")
+        String future;
+
+    }
+
+    @Name("jpromisor.ListenerExecution")
+    @Label("Listener Execution")
+    @Category("jpromisor")
+    @Description("A future listener ran longer than the threshold")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class ListenerExecutionEvent extends Event {
+
+        @Label("Executor")
+        String executor;
+
+        @Label("Listener")
+        String listener;
+
+    }
+
+    @Name("jpromisor.BlockingWait")
+    @Label("Blocking Wait")
+    @Category("jpromisor")
+    @Description("A thread blocked on an incomplete future longer than the threshold")
+    @Threshold("10 ms")
+    static final class BlockingWaitEvent extends Event {
+
+        @Label("Timed Out")
+        boolean timedOut;
+
+    }
+
+    @Name("jpromisor.Timeout")
+    @Label("Timeout")
+    @Category("jpromisor")
+    @Description("A deadline expired or a timed get gave up")
+    static final class TimeoutEvent extends Event {
+
+        @Label("Reason")
+        String reason;
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 内存分配预算测试用例
+ * <p>
+ * 通过{@code com.sun.management.ThreadMXBean}统计当前线程的分配字节数，求得每次操作的平均分配量，
+ * 使用默认选项，超出预算即失败，预算见{@link BudgetSupport}
+ * </p>
+ */
+public class AllocationTestCase {
+
+    private static final int warmups = 20000;
+    private static final int iterations = 100000;
+
+    private static final BudgetSupport budgets = new BudgetSupport("allocation", budgets());
+
+    private static com.sun.management.ThreadMXBean bean;
+
+    private final Promisor promisor = new Promisor();
+    private final FutureListener<Object> listener = future -> {
+    };
+
+    /*
+     * 防止被测对象被逃逸分析优化掉
+     */
+    private Object sink;
+
+    @BeforeClass
+    public static void setup() {
+        final ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+        bean = (com.sun.management.ThreadMXBean) mxBean;
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported());
+        bean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    // 创建Promise
+    @Test
+    public void test$allocation$promise() {
+        assertBudget("promise", 0, () -> sink = promisor.promise());
+    }
+
+    // 完成没有监听器的Promise
+    @Test
+    public void test$allocation$try_success() {
+        assertBudget("trySuccess", promiseBytes(), () -> {
+            final Promise<Object> promise = promisor.promise();
+            promise.trySuccess(promise);
+            sink = promise;
+        });
+    }
+
+    // 以轻量失败完成，开销应与成功相当
+    @Test
+    public void test$allocation$try_exception() {
+        assertBudget("tryException", promiseBytes(), () -> {
+            final Promise<Object> promise = promisor.promise();
+            promise.tryException(new Failure("MISS"));
+            sink = promise;
+        });
+    }
+
+    // 追加一个内联监听器
+    @Test
+    public void test$allocation$append_listener() {
+        assertBudget("appendListener", promiseBytes(), () -> {
+            final Promise<Object> promise = promisor.promise();
+            promise.appendListener(listener);
+            sink = promise;
+        });
+    }
+
+    // 追加一个接力阶段
+    @Test
+    public void test$allocation$then() {
+        assertBudget("then", promiseBytes(), () -> {
+            final Promise<Object> promise = promisor.promise();
+            sink = promise.success(v -> v);
+        });
+    }
+
+    // 已完成的Future上内联接力，直接计算出结果，不创建Promise
+    @Test
+    public void test$allocation$succeeded_then() {
+        assertBudget("succeededThen", 0, () -> sink = promisor.succeeded(sink).success(v -> v));
+    }
+
+    private long promiseBytes() {
+        return measure(() -> sink = promisor.promise());
+    }
+
+    /*
+     * 断言操作的平均分配量（扣除基线后）不超过预算
+     */
+    private void assertBudget(String name, long baseline, Runnable op) {
+        budgets.assertBudget(name, measure(op) - baseline);
+    }
+
+    private static Map<String, Long> budgets() {
+        final Map<String, Long> budgets = new HashMap<>();
+        budgets.put("promise", 40L);
+        budgets.put("trySuccess", 0L);
+        budgets.put("tryException", 64L);
+        budgets.put("appendListener", 40L);
+        budgets.put("then", 104L);
+        budgets.put("succeededThen", 48L);
+        return budgets;
+    }
+
+    private static long measure(Runnable op) {
+        for (int index = 0; index < warmups; index++) {
+            op.run();
+        }
+        final long thread = Thread.currentThread().getId();
+        final long start = bean.getThreadAllocatedBytes(thread);
+        for (int index = 0; index < iterations; index++) {
+            op.run();
+        }
+        return (bean.getThreadAllocatedBytes(thread) - start) / iterations;
+    }
+
+}
@@ -0,0 +1,167 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BatchLoader测试用例
+ */
+public class BatchLoaderTestCase {
+
+    // 窗口内的请求合并为一次批量调用，重复KEY只加载一次
+    @Test
+    public void test$batch$window() throws Exception {
+
+        final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        final BatchLoader<Integer, String> loader = new BatchLoader<>(100, 50, TimeUnit.MILLISECONDS, keys -> {
+            batches.add(keys);
+            final Map<Integer, String> values = new HashMap<>();
+            keys.forEach(key -> values.put(key, "V" + key));
+            return new Promisor().fulfill(Runnable::run, () -> values);
+        });
+
+        final ListenableFuture<String> f1 = loader.load(1);
+        final ListenableFuture<String> f2 = loader.load(2);
+        final ListenableFuture<String> f3 = loader.load(1);
+
+        Assert.assertEquals("V1", f1.get());
+        Assert.assertEquals("V2", f2.get());
+        Assert.assertEquals("V1", f3.get());
+        Assert.assertEquals(1, batches.size());
+        Assert.assertEquals(Arrays.asList(1, 2), batches.get(0));
+
+    }
+
+    // 凑满一批后立即派发，无需等待窗口结束
+    @Test
+    public void test$batch$max_size() throws Exception {
+
+        final AtomicInteger cnt = new AtomicInteger();
+        final BatchLoader<Integer, Integer> loader = new BatchLoader<>(2, 1, TimeUnit.HOURS, keys -> {
+            cnt.incrementAndGet();
+            final Map<Integer, Integer> values = new HashMap<>();
+            keys.forEach(key -> values.put(key, key * 10));
+            return new Promisor().fulfill(Runnable::run, () -> values);
+        });
+
+        final ListenableFuture<Integer> f1 = loader.load(1);
+        final ListenableFuture<Integer> f2 = loader.load(2);
+
+        Assert.assertEquals(10, f1.get(1, TimeUnit.SECONDS).intValue());
+        Assert.assertEquals(20, f2.get(1, TimeUnit.SECONDS).intValue());
+        Assert.assertEquals(1, cnt.get());
+
+    }
+
+    // 批量调用失败，同批所有调用者均失败；结果缺失的KEY以null完成
+    @Test
+    public void test$batch$failure_and_missing() throws Exception {
+
+        final BatchLoader<Integer, String> failLoader = new BatchLoader<>(10, 10, TimeUnit.MILLISECONDS, keys -> {
+            throw new RuntimeException("TEST!");
+        });
+        final ListenableFuture<String> f1 = failLoader.load(1).awaitUninterruptible();
+        final ListenableFuture<String> f2 = failLoader.load(2).awaitUninterruptible();
+        Assert.assertTrue(f1.isException());
+        Assert.assertTrue(f2.isException());
+
+        final Map<Integer, String> empty = Collections.emptyMap();
+        final BatchLoader<Integer, String> emptyLoader = new BatchLoader<>(10, 10, TimeUnit.MILLISECONDS,
+                keys -> new Promisor().fulfill(Runnable::run, () -> empty));
+        final ListenableFuture<String> f3 = emptyLoader.load(3).awaitUninterruptible();
+        Assert.assertTrue(f3.isSuccess());
+        Assert.assertNull(f3.getSuccess());
+
+        final BatchLoader<Integer, String> nullLoader = new BatchLoader<>(10, 10, TimeUnit.MILLISECONDS, keys -> null);
+        final ListenableFuture<String> f4 = nullLoader.load(4).awaitUninterruptible();
+        Assert.assertTrue(f4.getException() instanceof NullPointerException);
+
+    }
+
+    // 窗口到期的批次在指定执行器上运行，不占用定时器线程
+    @Test
+    public void test$batch$executor() throws Exception {
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "batch-executor"));
+        final BatchLoader<Integer, String> loader = new BatchLoader<>(new Promisor(), executor, 10, 10, TimeUnit.MILLISECONDS,
+                keys -> {
+                    final Map<Integer, String> values = Collections.singletonMap(keys.get(0), Thread.currentThread().getName());
+                    return new Promisor().fulfill(Runnable::run, () -> values);
+                });
+
+        Assert.assertEquals("batch-executor", loader.load(1).get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+    }
+
+    // 多线程并发加载，所有请求均正确完成
+    @Test
+    public void test$batch$concurrent() throws Exception {
+
+        final int length = 10000;
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final BatchLoader<Integer, Integer> loader = new BatchLoader<>(64, 1, TimeUnit.MILLISECONDS, keys -> {
+            final Map<Integer, Integer> values = new HashMap<>();
+            keys.forEach(key -> values.put(key, key + 1));
+            return new Promisor().fulfill(executor, () -> values);
+        });
+
+        final CountDownLatch latch = new CountDownLatch(length);
+        final List<ListenableFuture<Integer>> futures = Collections.synchronizedList(new ArrayList<>());
+        for (int index = 0; index < length; index++) {
+            final int key = index;
+            executor.execute(() -> {
+                futures.add(loader.load(key));
+                latch.countDown();
+            });
+        }
+        latch.await();
+
+        for (final ListenableFuture<Integer> future : futures) {
+            Assert.assertNotNull(future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+    }
+
+    // 同批某个调用者的监听器抛出异常，不影响其余调用者完成
+    @Test
+    public void test$batch$listener_throw() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final Promise<Map<Integer, String>> batchF = promisor.promise();
+        final BatchLoader<Integer, String> loader = new BatchLoader<>(2, 1, TimeUnit.HOURS, keys -> batchF);
+
+        final ListenableFuture<String> f1 = loader.load(1);
+        final ListenableFuture<String> f2 = loader.load(2);
+        f1.onDone(f -> {
+            throw new RuntimeException("TEST-1");
+        });
+        f2.onDone(f -> {
+            throw new RuntimeException("TEST-2");
+        });
+
+        final Map<Integer, String> values = new HashMap<>();
+        values.put(1, "V1");
+        values.put(2, "V2");
+        try {
+            batchF.trySuccess(values);
+            Assert.fail();
+        } catch (RuntimeException cause) {
+            Assert.assertEquals("TEST-1", cause.getMessage());
+            Assert.assertEquals("TEST-2", cause.getSuppressed()[0].getMessage());
+        }
+
+        Assert.assertEquals("V1", f1.get(1, TimeUnit.SECONDS));
+        Assert.assertEquals("V2", f2.get(1, TimeUnit.SECONDS));
+
+    }
+
+}
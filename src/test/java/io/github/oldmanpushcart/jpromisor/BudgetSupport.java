@@ -0,0 +1,54 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.openjdk.jol.vm.VM;
+import org.openjdk.jol.vm.VirtualMachine;
+
+import java.util.Map;
+
+/**
+ * 字节预算断言
+ * <p>
+ * 默认预算按64位JVM开启压缩指针时的实测值设定（对象头12字节、引用4字节、8字节对齐），
+ * 对象布局更大的JVM（关闭压缩指针、堆超过32G、更大的对齐等）上跳过断言；
+ * 预算可通过系统属性{@code jpromisor.<类别>.<名称>}覆盖，单位为字节，覆盖后不再检查布局
+ * </p>
+ */
+public class BudgetSupport {
+
+    private final String category;
+    private final Map<String, Long> budgets;
+
+    public BudgetSupport(String category, Map<String, Long> budgets) {
+        this.category = category;
+        this.budgets = budgets;
+    }
+
+    /**
+     * 断言不超过预算
+     *
+     * @param name  预算名称
+     * @param bytes 实测字节数
+     */
+    public void assertBudget(String name, long bytes) {
+        final Long override = Long.getLong("jpromisor." + category + "." + name);
+        if (null == override) {
+            assumeReferenceLayout();
+        }
+        final long budget = null != override ? override : budgets.get(name);
+        Assert.assertTrue(String.format("%s %s is %d bytes, budget is %d bytes", category, name, bytes, budget),
+                bytes <= budget);
+    }
+
+    /*
+     * 对象布局不大于默认预算的基准布局
+     */
+    private static void assumeReferenceLayout() {
+        final VirtualMachine vm = VM.current();
+        Assume.assumeTrue(vm.objectHeaderSize() <= 12
+                && vm.sizeOfField("java.lang.Object") <= 4
+                && vm.objectAlignment() <= 8);
+    }
+
+}
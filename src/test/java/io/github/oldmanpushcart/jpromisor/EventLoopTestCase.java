@@ -0,0 +1,143 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EventLoop测试用例
+ */
+public class EventLoopTestCase {
+
+    // 多线程提交的任务全部在循环线程上执行，同一提交者的任务保持顺序
+    @Test
+    public void test$event_loop$execute() throws Exception {
+
+        final int producers = 4;
+        final int length = 100000;
+        final List<List<Integer>> executed = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(producers * length);
+        try (final EventLoop loop = new EventLoop()) {
+            final List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final List<Integer> sequence = new ArrayList<>();
+                executed.add(sequence);
+                threads.add(new Thread(() -> {
+                    for (int index = 0; index < length; index++) {
+                        final int value = index;
+                        loop.execute(() -> {
+                            Assert.assertTrue(loop.inEventLoop());
+                            sequence.add(value);
+                            latch.countDown();
+                        });
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+
+        for (final List<Integer> sequence : executed) {
+            Assert.assertEquals(length, sequence.size());
+            for (int index = 0; index < length; index++) {
+                Assert.assertEquals(index, sequence.get(index).intValue());
+            }
+        }
+
+    }
+
+    // 在循环线程上完成的Promise，其挂在同一循环上的监听器直接执行而不再入队
+    @Test
+    public void test$event_loop$inline_dispatch() throws Exception {
+
+        try (final EventLoop loop = new EventLoop()) {
+            final Promise<Integer> promise = new Promisor().promise();
+            final List<String> events = Collections.synchronizedList(new ArrayList<>());
+            final ListenableFuture<Integer> future = promise.success(loop, v -> {
+                events.add("listener");
+                Assert.assertTrue(loop.inEventLoop());
+                return v + 1;
+            });
+            loop.execute(() -> {
+                promise.trySuccess(100);
+                events.add("completed");
+            });
+            Assert.assertEquals(101, future.get(1, TimeUnit.SECONDS).intValue());
+            // 等待前一个任务执行完毕
+            new Promisor().fulfill(loop, () -> null).sync();
+            Assert.assertEquals("listener", events.get(0));
+            Assert.assertEquals("completed", events.get(1));
+        }
+
+    }
+
+    // 事件循环组轮询分配，关闭后拒绝新任务
+    @Test
+    public void test$event_loop$group() throws Exception {
+
+        final EventLoopGroup group = new EventLoopGroup(2);
+        final EventLoop first = group.next();
+        final EventLoop second = group.next();
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(first, group.next());
+        Assert.assertEquals(100, new Promisor().fulfill(group, () -> 100).get(1, TimeUnit.SECONDS).intValue());
+        Assert.assertFalse(group.inEventLoop());
+
+        group.shutdown();
+        Assert.assertTrue(first.isShutdown());
+        try {
+            group.execute(() -> {
+            });
+            Assert.fail();
+        } catch (RejectedExecutionException cause) {
+            // expected
+        }
+
+    }
+
+    // 关闭与提交并发：未被拒绝的任务在循环线程退出前全部执行
+    @Test
+    public void test$event_loop$shutdown_race() throws Exception {
+
+        for (int round = 0; round < 200; round++) {
+            final EventLoop loop = new EventLoop();
+            final AtomicInteger accepted = new AtomicInteger();
+            final AtomicInteger executed = new AtomicInteger();
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                threads.add(new Thread(() -> {
+                    try {
+                        start.await();
+                        while (true) {
+                            loop.execute(executed::incrementAndGet);
+                            accepted.incrementAndGet();
+                        }
+                    } catch (RejectedExecutionException | InterruptedException cause) {
+                        // expected
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            start.countDown();
+            Thread.sleep(1);
+            loop.shutdown();
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            while (!loop.isTerminated()) {
+                Thread.sleep(1);
+            }
+            Assert.assertEquals(accepted.get(), executed.get());
+        }
+
+    }
+
+}
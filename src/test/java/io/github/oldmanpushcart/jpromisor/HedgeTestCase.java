@@ -0,0 +1,152 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对冲请求测试用例
+ */
+public class HedgeTestCase {
+
+    // 主请求迟迟不返回，备份请求胜出，主请求被取消
+    @Test
+    public void test$hedge$backup_win() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final List<Promise<Integer>> attempts = new ArrayList<>();
+        final ListenableFuture<Integer> future = promisor.hedge(10, TimeUnit.MILLISECONDS, 3, () -> {
+            final Promise<Integer> attempt = promisor.promise();
+            synchronized (attempts) {
+                attempts.add(attempt);
+                if (attempts.size() == 2) {
+                    attempt.trySuccess(200);
+                }
+            }
+            return attempt;
+        });
+
+        Assert.assertEquals(200, future.get(1, TimeUnit.SECONDS).intValue());
+
+        // get()在唤醒等待者后即返回，取消其余请求与统计胜出次数发生在完成通知中，需等其结束
+        final Promise<Integer> primary;
+        synchronized (attempts) {
+            Assert.assertEquals(2, attempts.size());
+            primary = attempts.get(0);
+        }
+        Assert.assertTrue(primary.awaitUninterruptible().isCancelled());
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (promisor.getHedgeMetrics().getHedgeWins() == 0 && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+        Assert.assertEquals(1, promisor.getHedgeMetrics().getRequests());
+        Assert.assertEquals(1, promisor.getHedgeMetrics().getHedges());
+        Assert.assertEquals(1, promisor.getHedgeMetrics().getHedgeWins());
+
+    }
+
+    // 主请求及时返回，不会发起备份请求
+    @Test
+    public void test$hedge$primary_win() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final AtomicInteger cnt = new AtomicInteger();
+        final ListenableFuture<Integer> future = promisor.hedge(1, TimeUnit.SECONDS, 3, () -> {
+            cnt.incrementAndGet();
+            return promisor.fulfill(Runnable::run, () -> 100);
+        });
+
+        Assert.assertEquals(100, future.get().intValue());
+        Thread.sleep(50);
+        Assert.assertEquals(1, cnt.get());
+        Assert.assertEquals(0, promisor.getHedgeMetrics().getHedges());
+
+    }
+
+    // 全部请求失败，以最后一次失败结束，失败后立即发起下一次请求
+    @Test
+    public void test$hedge$all_failed() {
+
+        final Promisor promisor = new Promisor();
+        final AtomicInteger cnt = new AtomicInteger();
+        final ListenableFuture<Integer> future = promisor.hedge(1, TimeUnit.HOURS, 3, () -> {
+            throw new RuntimeException("TEST-" + cnt.incrementAndGet());
+        });
+
+        future.awaitUninterruptible();
+        Assert.assertTrue(future.isException());
+        Assert.assertEquals("TEST-3", future.getException().getMessage());
+
+    }
+
+    // 请求函数返回null视为该次请求失败，后续请求仍可胜出
+    @Test
+    public void test$hedge$null_attempt() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final AtomicInteger cnt = new AtomicInteger();
+        final ListenableFuture<Integer> future = promisor.hedge(1, TimeUnit.HOURS, 2, () ->
+                cnt.incrementAndGet() == 1 ? null : promisor.succeeded(200));
+        Assert.assertEquals(200, future.get(1, TimeUnit.SECONDS).intValue());
+
+        final ListenableFuture<Integer> nullF = promisor.hedge(1, TimeUnit.HOURS, 2, () -> null);
+        Assert.assertTrue(nullF.awaitUninterruptible().getException() instanceof NullPointerException);
+
+    }
+
+    // 备份请求在指定执行器上发起，不占用定时器线程
+    @Test
+    public void test$hedge$executor() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "hedge-executor"));
+        final AtomicInteger cnt = new AtomicInteger();
+        final ListenableFuture<String> future = promisor.hedge(executor, 10, TimeUnit.MILLISECONDS, 2, () ->
+                cnt.incrementAndGet() == 1
+                        ? promisor.<String>promise()
+                        : promisor.succeeded(Thread.currentThread().getName()));
+
+        Assert.assertEquals("hedge-executor", future.get(1, TimeUnit.SECONDS));
+        executor.shutdown();
+
+    }
+
+    // 备份请求发起期间主请求已胜出，备份请求仍会被取消
+    @Test
+    public void test$hedge$backup_after_win() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final Promise<Integer> primary = promisor.promise();
+        final Promise<Integer> backup = promisor.promise();
+        final CountDownLatch calling = new CountDownLatch(1);
+        final CountDownLatch won = new CountDownLatch(1);
+        final AtomicInteger cnt = new AtomicInteger();
+        final ListenableFuture<Integer> future = promisor.hedge(10, TimeUnit.MILLISECONDS, 2, () -> {
+            if (cnt.incrementAndGet() == 1) {
+                return primary;
+            }
+            calling.countDown();
+            won.await();
+            return backup;
+        });
+
+        Assert.assertTrue(calling.await(1, TimeUnit.SECONDS));
+        primary.trySuccess(100);
+        Assert.assertEquals(100, future.get(1, TimeUnit.SECONDS).intValue());
+        won.countDown();
+
+        final CountDownLatch done = new CountDownLatch(1);
+        backup.onDone(f -> done.countDown());
+        Assert.assertTrue(done.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(backup.isCancelled());
+
+    }
+
+}
@@ -45,4 +45,56 @@ public class IssuesTestCase extends ExecutorSupport {
 
     }
 
+    // removeListener只移除同一个实例，equals相等的其他监听器不受影响
+    @Test
+    public void test$issues$remove_listener_identity() {
+        final AtomicInteger cnt = new AtomicInteger();
+
+        final class EqualsListener implements FutureListener<Object> {
+
+            @Override
+            public void onDone(ListenableFuture<Object> future) {
+                cnt.incrementAndGet();
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof EqualsListener;
+            }
+
+            @Override
+            public int hashCode() {
+                return 0;
+            }
+
+        }
+
+        final FutureListener<Object> removed = new EqualsListener();
+        final Promise<Object> promise = new Promisor().promise();
+        promise.appendListener(new EqualsListener())
+                .appendListener(removed)
+                .removeListener(removed);
+        promise.trySuccess();
+
+        Assert.assertEquals(1, cnt.get());
+    }
+
+    // 通过注册凭证移除监听器，通知后再移除返回false
+    @Test
+    public void test$issues$registration_remove() {
+        final AtomicInteger cnt = new AtomicInteger();
+        final Promise<Object> promise = new Promisor().promise();
+        final ListenerRegistration r1 = promise.register(future -> cnt.incrementAndGet());
+        final ListenerRegistration r2 = promise.register(future -> cnt.addAndGet(10));
+        final ListenerRegistration r3 = promise.register(future -> cnt.addAndGet(100));
+
+        Assert.assertTrue(r2.remove());
+        Assert.assertFalse(r2.remove());
+        promise.trySuccess();
+
+        Assert.assertEquals(101, cnt.get());
+        Assert.assertFalse(r1.remove());
+        Assert.assertFalse(r3.remove());
+    }
+
 }
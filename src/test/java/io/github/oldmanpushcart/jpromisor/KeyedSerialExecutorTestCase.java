@@ -0,0 +1,149 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * KeyedSerialExecutor测试用例
+ */
+public class KeyedSerialExecutorTestCase {
+
+    // 同一个KEY的任务按序且互斥地执行，全部完成后KEY自动移除
+    @Test
+    public void test$serial$ordering() throws Exception {
+
+        final int keys = 16;
+        final int length = 10000;
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final KeyedSerialExecutor<Integer> serial = new KeyedSerialExecutor<>(executor);
+
+        final List<List<Integer>> executed = new ArrayList<>();
+        final AtomicInteger[] running = new AtomicInteger[keys];
+        final AtomicInteger violations = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(keys * length);
+        final List<Thread> producers = new ArrayList<>();
+        for (int key = 0; key < keys; key++) {
+            final int k = key;
+            final List<Integer> sequence = new ArrayList<>();
+            executed.add(sequence);
+            running[k] = new AtomicInteger();
+            producers.add(new Thread(() -> {
+                for (int index = 0; index < length; index++) {
+                    final int value = index;
+                    serial.execute(k, () -> {
+                        if (running[k].incrementAndGet() != 1) {
+                            violations.incrementAndGet();
+                        }
+                        sequence.add(value);
+                        running[k].decrementAndGet();
+                        latch.countDown();
+                    });
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+
+        Assert.assertEquals(0, violations.get());
+        for (final List<Integer> sequence : executed) {
+            Assert.assertEquals(length, sequence.size());
+            for (int index = 0; index < length; index++) {
+                Assert.assertEquals(index, sequence.get(index).intValue());
+            }
+        }
+        Assert.assertEquals(0, serial.size());
+
+    }
+
+    // 不同KEY的任务并行执行，可作为接力的执行器
+    @Test
+    public void test$serial$parallel_keys() throws Exception {
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final Promisor promisor = new Promisor();
+        final Executor a = promisor.serial(executor, "A");
+        final Executor b = promisor.serial(executor, "B");
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ListenableFuture<Boolean> waitF = promisor.<Boolean>promise().fulfill(a, () -> latch.await(1, TimeUnit.SECONDS));
+        final ListenableFuture<Integer> thenF = waitF.success(a, v -> v ? 1 : 0);
+        promisor.fulfill(b, latch::countDown);
+
+        Assert.assertEquals(1, thenF.get(1, TimeUnit.SECONDS).intValue());
+        executor.shutdown();
+
+    }
+
+    // 底层执行器拒绝时异常抛给提交方并移除KEY，其余提交方已排队的任务不会被丢弃，之后同一KEY的任务仍能执行
+    @Test
+    public void test$serial$rejected() throws Exception {
+
+        final AtomicInteger submits = new AtomicInteger();
+        final AtomicInteger executed = new AtomicInteger();
+        final AtomicReference<KeyedSerialExecutor<String>> reference = new AtomicReference<>();
+        final KeyedSerialExecutor<String> serial = new KeyedSerialExecutor<>(command -> {
+            if (submits.incrementAndGet() == 1) {
+
+                // 排空任务被拒绝前，另一个提交方已在同一KEY下排队
+                reference.get().execute("A", executed::incrementAndGet);
+                throw new RejectedExecutionException();
+            }
+            command.run();
+        });
+        reference.set(serial);
+
+        try {
+            serial.execute("A", () -> executed.addAndGet(100));
+            Assert.fail();
+        } catch (RejectedExecutionException cause) {
+            // expected
+        }
+        Assert.assertEquals(1, executed.get());
+        Assert.assertEquals(0, serial.size());
+
+        serial.execute("A", executed::incrementAndGet);
+        Assert.assertEquals(2, executed.get());
+        Assert.assertEquals(0, serial.size());
+
+    }
+
+    // 被拒绝的已排队任务交给指定的拒绝策略
+    @Test
+    public void test$serial$rejection_handler() {
+
+        final List<String> rejected = new ArrayList<>();
+        final AtomicReference<KeyedSerialExecutor<String>> reference = new AtomicReference<>();
+        final KeyedSerialExecutor<String> serial = new KeyedSerialExecutor<>(command -> {
+            reference.get().execute("A", () -> {
+            });
+            throw new RejectedExecutionException();
+        }, (key, task, cause) -> rejected.add(key));
+        reference.set(serial);
+
+        try {
+            serial.execute("A", () -> {
+            });
+            Assert.fail();
+        } catch (RejectedExecutionException cause) {
+            // expected
+        }
+        Assert.assertEquals(Collections.singletonList("A"), rejected);
+        Assert.assertEquals(0, serial.size());
+
+    }
+
+}
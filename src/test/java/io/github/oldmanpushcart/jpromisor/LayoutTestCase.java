@@ -0,0 +1,95 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import io.github.oldmanpushcart.jpromisor.impl.CompletedFuture;
+import io.github.oldmanpushcart.jpromisor.impl.FutureOptions;
+import io.github.oldmanpushcart.jpromisor.impl.NotifiableFuture;
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 对象布局测试用例
+ * <p>
+ * 通过JOL统计Future的浅层大小及其独占的保留大小（扣除共享的选项、结果值及监听器本身），
+ * 使用默认选项，超出预算即失败，预算见{@link BudgetSupport}
+ * </p>
+ */
+public class LayoutTestCase {
+
+    private static final BudgetSupport budgets = new BudgetSupport("layout", budgets());
+
+    private final FutureOptions options = FutureOptions.defaults;
+
+    // 未完成的Future只有对象本身
+    @Test
+    public void test$layout$pending() {
+        assertBudget("shallow", ClassLayout.parseInstance(new NotifiableFuture<>(options)).instanceSize());
+        assertBudget("pending", footprint(() -> new NotifiableFuture<>(options)));
+    }
+
+    // 每个监听器只多一个链表节点
+    @Test
+    public void test$layout$listening() {
+        final FutureListener<Object> listener = future -> {
+        };
+        assertBudget("listening", footprint(() -> new NotifiableFuture<>(options).appendListener(listener)));
+    }
+
+    // 成功直接存放结果值，不再额外分配
+    @Test
+    public void test$layout$success() {
+        final Object value = new Object();
+        assertBudget("success", footprint(() -> {
+            final NotifiableFuture<Object> future = new NotifiableFuture<>(options);
+            future.trySuccess(value);
+            return future;
+        }));
+    }
+
+    // 失败多一个状态结果
+    @Test
+    public void test$layout$exception() {
+        final Exception cause = new Failure("MISS");
+        assertBudget("exception", footprint(() -> {
+            final NotifiableFuture<Object> future = new NotifiableFuture<>(options);
+            future.tryException(cause);
+            return future;
+        }));
+    }
+
+    // 已完成的不可变Future
+    @Test
+    public void test$layout$completed() {
+        final Object value = new Object();
+        assertBudget("completed", footprint(() -> CompletedFuture.succeeded(options, value)));
+    }
+
+    /*
+     * 单个Future独占的保留大小：以同样方式再创建一个，扣除两者共享的对象（选项、结果值、监听器及各类单例）
+     */
+    private static long footprint(Supplier<Object> factory) {
+        final Object future = factory.get();
+        final Object sibling = factory.get();
+        return GraphLayout.parseInstance(future).subtract(GraphLayout.parseInstance(sibling)).totalSize();
+    }
+
+    private static void assertBudget(String name, long bytes) {
+        budgets.assertBudget(name, bytes);
+    }
+
+    private static Map<String, Long> budgets() {
+        final Map<String, Long> budgets = new HashMap<>();
+        budgets.put("shallow", 40L);
+        budgets.put("pending", 40L);
+        budgets.put("listening", 80L);
+        budgets.put("success", 40L);
+        budgets.put("exception", 64L);
+        budgets.put("completed", 24L);
+        return budgets;
+    }
+
+}
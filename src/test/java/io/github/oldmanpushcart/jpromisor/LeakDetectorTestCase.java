@@ -0,0 +1,67 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 泄漏检测测试用例
+ */
+public class LeakDetectorTestCase {
+
+    private static void leak(Promisor promisor, boolean observed) {
+        final Promise<Object> promise = promisor.promise();
+        if (observed) {
+            promise.onDone(future -> {
+
+            });
+        }
+    }
+
+    // 泄漏由后台线程上报，无需再创建Promise
+    private static void collect(Queue<Throwable> leaks) throws InterruptedException {
+        for (int index = 0; index < 50 && leaks.isEmpty(); index++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+
+    // 注册了监听器却从未完成的Promise被回收，上报创建堆栈
+    @Test
+    public void test$leak$observed() throws InterruptedException {
+        final Queue<Throwable> leaks = new ConcurrentLinkedQueue<>();
+        final Promisor promisor = new Promisor()
+                .leakDetector(new LeakDetector(LeakDetector.Level.PARANOID, 1, leaks::add));
+
+        leak(promisor, true);
+        collect(leaks);
+
+        Assert.assertFalse(leaks.isEmpty());
+        Assert.assertEquals("Promise created at", leaks.peek().getMessage());
+    }
+
+    // 无人监听的Promise，或已完成的Promise被回收，不视为泄漏
+    @Test
+    public void test$leak$ignored() throws InterruptedException {
+        final Queue<Throwable> leaks = new ConcurrentLinkedQueue<>();
+        final Promisor promisor = new Promisor()
+                .leakDetector(new LeakDetector(LeakDetector.Level.PARANOID, 1, leaks::add));
+
+        leak(promisor, false);
+        promisor.promise().onDone(future -> {
+
+        }).<Promise<Object>>future().trySuccess(null);
+        collect(leaks);
+
+        Assert.assertTrue(leaks.isEmpty());
+    }
+
+    // 默认关闭，不为每个Promise付出跟踪开销
+    @Test
+    public void test$leak$disabled_by_default() {
+        Assert.assertEquals(LeakDetector.Level.DISABLED, LeakDetector.defaults.getLevel());
+    }
+
+}
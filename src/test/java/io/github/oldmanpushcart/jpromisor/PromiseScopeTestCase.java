@@ -0,0 +1,99 @@
+package io.github.oldmanpushcart.jpromisor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PromiseScope测试用例
+ */
+@RunWith(Parameterized.class)
+public class PromiseScopeTestCase extends ExecutorSupport {
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {Executors.newSingleThreadExecutor()},
+                {Executors.newFixedThreadPool(4)}
+        });
+    }
+
+    public PromiseScopeTestCase(Executor executor) {
+        super(executor);
+    }
+
+    // 所有子Promise完成后，join完成
+    @Test
+    public void test$scope$join() throws Exception {
+        try (final PromiseScope scope = new PromiseScope()) {
+            final ListenableFuture<Integer> f1 = scope.promisor().fulfill(getExecutor(), () -> 100);
+            final ListenableFuture<Integer> f2 = scope.promisor().fulfill(getExecutor(), () -> 200);
+            scope.join().get(1, TimeUnit.SECONDS);
+            Assert.assertEquals(300, f1.getSuccess() + f2.getSuccess());
+            Assert.assertEquals(0, scope.pending());
+        }
+    }
+
+    // 任意一个子Promise异常，其余子Promise均被取消
+    @Test
+    public void test$scope$fail_cancel_others() {
+        try (final PromiseScope scope = new PromiseScope()) {
+            final Promise<Integer> pending = scope.promisor().promise();
+            scope.promisor().fulfill(getExecutor(), () -> {
+                throw new RuntimeException("TEST!");
+            });
+            final ListenableFuture<Void> join = scope.join().awaitUninterruptible();
+            Assert.assertTrue(join.isException());
+            Assert.assertEquals("TEST!", join.getException().getMessage());
+            Assert.assertTrue(pending.awaitUninterruptible().isCancelled());
+        }
+    }
+
+    // 作用域关闭，未完成的子Promise被取消，之后创建的Promise也直接被取消
+    @Test
+    public void test$scope$close() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final PromiseScope scope = new PromiseScope();
+        final ListenableFuture<Void> running = scope.promisor().fulfill(getExecutor(), latch::await);
+        scope.close();
+        latch.countDown();
+
+        Assert.assertTrue(running.isCancelled());
+        Assert.assertTrue(scope.join().isCancelled());
+        Assert.assertTrue(scope.promisor().promise().isCancelled());
+    }
+
+    // 某个子Promise的取消监听器抛出异常，其余子Promise仍被取消，join仍能完成
+    @Test
+    public void test$scope$cancel_listener_throw() {
+        final PromiseScope scope = new PromiseScope();
+        final Promise<Integer> p1 = scope.promisor().promise();
+        final Promise<Integer> p2 = scope.promisor().promise();
+        p1.onCancelled(() -> {
+            throw new RuntimeException("TEST-1");
+        });
+        p2.onCancelled(() -> {
+            throw new RuntimeException("TEST-2");
+        });
+        try {
+            scope.close();
+            Assert.fail();
+        } catch (RuntimeException cause) {
+            Assert.assertTrue(cause.getMessage().startsWith("TEST-"));
+            Assert.assertEquals(1, cause.getSuppressed().length);
+        }
+        Assert.assertTrue(p1.isCancelled());
+        Assert.assertTrue(p2.isCancelled());
+        Assert.assertEquals(0, scope.pending());
+        Assert.assertTrue(scope.join().isDone());
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.github.oldmanpushcart.jpromisor;
 
+import io.github.oldmanpushcart.jpromisor.impl.AsyncStackTrace;
 import io.github.oldmanpushcart.jpromisor.impl.NotifiableFuture;
 import org.junit.Assert;
 import org.junit.Test;
@@ -9,8 +10,11 @@ import org.junit.runners.Parameterized;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Promise测试用例
@@ -390,5 +394,540 @@ public class PromiseTestCase extends ExecutorSupport {
 
     }
 
+    // 截止时间随接力传递，到期后接力函数不再执行，直接以超时失败
+    @Test
+    public void test$promise$deadline() throws InterruptedException {
+
+        final AtomicInteger cnt = new AtomicInteger();
+        final Promise<Integer> promise = new Promisor().promise(Deadline.after(50, TimeUnit.MILLISECONDS));
+        final ListenableFuture<Integer> future = promise
+                .success(getExecutor(), v -> {
+                    cnt.incrementAndGet(); // 不会被执行
+                    return v + 100;
+                })
+                .exception(getExecutor(), e -> {
+                    cnt.incrementAndGet(); // 不会被执行
+                    return 300;
+                });
+
+        Assert.assertSame(promise.getDeadline(), future.getDeadline());
+        Thread.sleep(100);
+        promise.trySuccess(100);
+        future.awaitUninterruptible();
+
+        Assert.assertEquals(0, cnt.get());
+        Assert.assertTrue(future.isException());
+        Assert.assertEquals(TimeoutException.class, future.getException().getClass());
+
+    }
+
+    // 截止时间到期时上游已失败，上游异常作为超时的cause，扇出的多个接力均不修改上游异常
+    @Test
+    public void test$promise$deadline_keep_cause() throws InterruptedException {
+
+        final Promise<Integer> promise = new Promisor().promise(Deadline.after(50, TimeUnit.MILLISECONDS));
+        final ListenableFuture<Integer> future = promise
+                .exception(getExecutor(), e -> 300);
+        final ListenableFuture<Integer> other = promise
+                .exception(getExecutor(), e -> 400);
+
+        Thread.sleep(100);
+        final Exception cause = new RuntimeException("MISS");
+        promise.tryException(cause);
+        future.awaitUninterruptible();
+        other.awaitUninterruptible();
+
+        Assert.assertTrue(future.getException() instanceof TimeoutException);
+        Assert.assertSame(cause, future.getException().getCause());
+        Assert.assertTrue(other.getException() instanceof TimeoutException);
+        Assert.assertSame(cause, other.getException().getCause());
+        Assert.assertEquals(0, cause.getSuppressed().length);
+
+    }
+
+    // 履约函数中可读取剩余预算，期间创建的Promise继承截止时间
+    @Test
+    public void test$promise$deadline_current() {
+
+        final Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+        final ListenableFuture<Deadline> future = new Promisor().<Long>promise(deadline)
+                .fulfill(getExecutor(), () -> Deadline.current().timeRemaining(TimeUnit.MILLISECONDS))
+                .success(getExecutor(), remaining -> {
+                    Assert.assertTrue(remaining > 0);
+                    return new Promisor().promise().getDeadline();
+                })
+                .awaitUninterruptible();
+
+        Assert.assertSame(deadline, future.getSuccess());
+        Assert.assertNull(Deadline.current());
+
+    }
+
+    // 不允许阻塞的线程等待未完成的Future时抛出异常，等待已完成的Future不受影响
+    @Test
+    public void test$promise$blocking_guard() throws Exception {
+
+        final BlockingGuard guard = new BlockingGuard(thread -> thread.getName().startsWith("io-"), BlockingGuard.Action.THROW);
+        final Promisor promisor = new Promisor().blockingGuard(guard);
+        final Promise<Integer> pending = promisor.promise();
+        final ListenableFuture<Integer> done = promisor.fulfill(getExecutor(), () -> 100).awaitUninterruptible();
+
+        final Exception[] causes = new Exception[1];
+        final int[] values = new int[1];
+        final Thread io = new Thread(() -> {
+            try {
+                values[0] = done.get();
+                pending.get();
+            } catch (Exception cause) {
+                causes[0] = cause;
+            }
+        }, "io-0");
+        io.start();
+        io.join();
+
+        Assert.assertEquals(100, values[0]);
+        Assert.assertTrue(causes[0] instanceof IllegalStateException);
+        Assert.assertEquals(1, guard.getViolations());
+
+    }
+
+    // 自适应等待策略下，等待结果及超时均符合预期
+    @Test
+    public void test$promise$adaptive_wait() throws Exception {
+
+        final AdaptiveWaitStrategy strategy = new AdaptiveWaitStrategy();
+        final Promisor promisor = new Promisor().waitStrategy(strategy);
+        for (int index = 0; index < 1000; index++) {
+            final int value = index;
+            Assert.assertEquals(value, promisor.fulfill(getExecutor(), () -> value).get().intValue());
+        }
+        Assert.assertTrue(strategy.getSpinBudgetNanos() <= TimeUnit.MICROSECONDS.toNanos(20));
+
+        try {
+            promisor.promise().get(10, TimeUnit.MILLISECONDS);
+            Assert.fail();
+        } catch (TimeoutException cause) {
+            // expected
+        }
+
+    }
+
+    // 阶段融合：同一执行器上的连续接力只派发一次，中间阶段的结果依然可见；中间阶段被取消时后续阶段随之取消
+    @Test
+    public void test$promise$fusion() throws Exception {
+
+        final AtomicInteger dispatches = new AtomicInteger();
+        final Executor executor = command -> {
+            dispatches.incrementAndGet();
+            getExecutor().execute(command);
+        };
+
+        final Promisor promisor = new Promisor().fusion(true);
+        final Promise<Integer> promise = promisor.promise();
+        final ListenableFuture<Integer> middle = promise.success(executor, v -> v + 1);
+        final ListenableFuture<String> last = middle
+                .<String>success(executor, v -> {
+                    throw new IllegalArgumentException("test!");
+                })
+                .exception(executor, Exception::getMessage)
+                .success(executor, String::toUpperCase);
+
+        promise.trySuccess(100);
+        Assert.assertEquals("TEST!", last.get());
+        Assert.assertEquals(101, middle.get().intValue());
+        Assert.assertEquals(1, dispatches.get());
+
+        final Promise<Integer> cancelP = promisor.promise();
+        final ListenableFuture<Integer> cancelMiddle = cancelP.success(executor, v -> v + 1);
+        final ListenableFuture<Integer> cancelLast = cancelMiddle.success(executor, v -> v + 1);
+        cancelMiddle.cancel(true);
+        Assert.assertTrue(cancelLast.awaitUninterruptible().isCancelled());
+        cancelP.trySuccess(100);
+        Assert.assertFalse(cancelP.isCancelled());
+
+    }
+
+    // 异步接力：内层Future的结果直接转交，失败可恢复，函数返回null时失败
+    @Test
+    public void test$promise$compose() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final Promise<Integer> promise = promisor.promise();
+        final ListenableFuture<String> composeF = promise
+                .flatSuccess(getExecutor(), v -> promisor.fulfill(getExecutor(), () -> "V" + v));
+        final ListenableFuture<String> recoverF = promise
+                .<Integer>success(v -> {
+                    throw new IllegalArgumentException("TEST!");
+                })
+                .compose(getExecutor(),
+                        v -> promisor.fulfill(getExecutor(), () -> "V" + v),
+                        cause -> promisor.<String>promise().fulfill(getExecutor(), cause::getMessage));
+        final ListenableFuture<String> nullF = promise.flatSuccess(v -> null);
+
+        promise.trySuccess(100);
+        Assert.assertEquals("V100", composeF.get());
+        Assert.assertEquals("TEST!", recoverF.get());
+        Assert.assertTrue(nullF.awaitUninterruptible().getException() instanceof NullPointerException);
+
+    }
+
+    // 长异步递归：十万层内联完成的接力不会撑爆调用栈
+    @Test
+    public void test$promise$compose$stack_safe() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final Promise<Integer> gate = promisor.promise();
+        final Promise<Integer> done = promisor.promise();
+        done.trySuccess(0);
+
+        ListenableFuture<Integer> future = gate;
+        for (int index = 0; index < 100000; index++) {
+            final ListenableFuture<Integer> inner = future;
+            future = done.flatSuccess(v -> inner);
+        }
+
+        gate.trySuccess(100);
+        Assert.assertEquals(100, future.get(10, TimeUnit.SECONDS).intValue());
+
+    }
+
+    // 监听器抛出异常时，被推迟通知的其他Future仍然完成
+    @Test
+    public void test$promise$stack_safe$listener_throw() {
+
+        final Promisor promisor = new Promisor();
+        final List<Promise<Integer>> chain = new ArrayList<>();
+        for (int index = 0; index < 32; index++) {
+            chain.add(promisor.promise());
+        }
+        for (int index = 0; index < chain.size() - 1; index++) {
+            final Promise<Integer> next = chain.get(index + 1);
+            chain.get(index).onSuccess(next::trySuccess);
+        }
+        chain.get(0).onSuccess(v -> {
+            throw new RuntimeException("MISS");
+        });
+
+        try {
+            chain.get(0).trySuccess(100);
+            Assert.fail();
+        } catch (RuntimeException cause) {
+            Assert.assertEquals("MISS", cause.getMessage());
+        }
+        Assert.assertEquals(100, chain.get(chain.size() - 1).getSuccess().intValue());
+
+    }
+
+    // 通知嵌套较深时，向已完成的Future注册的监听器仍在注册返回前执行
+    @Test
+    public void test$promise$stack_safe$register_done() {
+
+        final Promisor promisor = new Promisor();
+        final Promise<Integer> done = promisor.promise();
+        done.trySuccess(0);
+
+        final List<Promise<Integer>> chain = new ArrayList<>();
+        for (int index = 0; index < 32; index++) {
+            chain.add(promisor.promise());
+        }
+        final AtomicInteger deferred = new AtomicInteger();
+        for (int index = 0; index < chain.size() - 1; index++) {
+            final Promise<Integer> next = chain.get(index + 1);
+            chain.get(index).onSuccess(v -> {
+                final AtomicBoolean ran = new AtomicBoolean();
+                done.onDone(f -> ran.set(true));
+                if (!ran.get()) {
+                    deferred.incrementAndGet();
+                }
+                next.trySuccess(v);
+            });
+        }
+
+        chain.get(0).trySuccess(100);
+        Assert.assertEquals(100, chain.get(chain.size() - 1).getSuccess().intValue());
+        Assert.assertEquals(0, deferred.get());
+
+    }
+
+    // 异步接力的默认实现只依赖公开接口：内层结果转交给接力Future，失败原样传递，内层为null时以NPE失败
+    @Test
+    public void test$promise$compose$default() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final Promise<Integer> inner = promisor.promise();
+        final ListenableFuture<Integer> composeF = new Composing<Integer>()
+                .start(promisor.succeeded(inner));
+        Assert.assertFalse(composeF.isDone());
+        inner.trySuccess(100);
+        Assert.assertEquals(100, composeF.get(1, TimeUnit.SECONDS).intValue());
+
+        final Exception cause = new RuntimeException("TEST!");
+        Assert.assertSame(cause, new Composing<Integer>()
+                .start(promisor.failed(cause))
+                .awaitUninterruptible()
+                .getException());
+
+        Assert.assertTrue(new Composing<Integer>()
+                .start(promisor.succeeded(null))
+                .awaitUninterruptible()
+                .getException() instanceof NullPointerException);
+
+    }
+
+    // 异步循环：同步完成的轮次不递归，异步轮次按序推进，取消后不再进入下一轮并取消正在进行的步进
+    @Test
+    public void test$promisor$loop() throws Exception {
+
+        final Promisor promisor = new Promisor();
+
+        final ListenableFuture<Integer> syncF = promisor.loop(0, i -> i < 1000000, i -> {
+            final Promise<Integer> next = promisor.promise();
+            next.trySuccess(i + 1);
+            return next;
+        });
+        Assert.assertEquals(1000000, syncF.get().intValue());
+
+        final ListenableFuture<Integer> asyncF = promisor.loop(0, i -> i < 1000,
+                i -> promisor.fulfill(getExecutor(), () -> i + 1));
+        Assert.assertEquals(1000, asyncF.get(10, TimeUnit.SECONDS).intValue());
+
+        final Promise<Integer> pending = promisor.promise();
+        final ListenableFuture<Integer> cancelF = promisor.loop(0, i -> true, i -> pending);
+        Assert.assertTrue(cancelF.cancel(true));
+        Assert.assertTrue(pending.isCancelled());
+
+        final ListenableFuture<Integer> failF = promisor.loop(0, i -> true, i -> {
+            throw new IllegalStateException("TEST!");
+        });
+        Assert.assertTrue(failF.awaitUninterruptible().getException() instanceof IllegalStateException);
+
+    }
+
+    // 步进期间结果被取消，刚发起的步进同样被取消
+    @Test
+    public void test$promisor$loop$cancel_during_step() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final Promise<Integer> first = promisor.promise();
+        final Promise<Integer> second = promisor.promise();
+        final AtomicReference<ListenableFuture<Integer>> reference = new AtomicReference<>();
+        final ListenableFuture<Integer> loopF = promisor.loop(0, i -> true, i -> {
+            if (i == 0) {
+                return first;
+            }
+            reference.get().cancel(false);
+            return second;
+        });
+        reference.set(loopF);
+
+        first.trySuccess(1);
+        Assert.assertTrue(loopF.isCancelled());
+        Assert.assertTrue(second.isCancelled());
+
+    }
+
+    // ForkJoinPool工作线程上的阻塞等待由池补偿线程，嵌套扇出不会耗尽工作线程
+    @Test
+    public void test$promise$fork_join_fan_out() throws Exception {
+
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        final Promisor promisor = new Promisor();
+        try {
+            final List<ListenableFuture<Integer>> futures = new ArrayList<>();
+            for (int index = 0; index < 8; index++) {
+                final int value = index;
+                futures.add(promisor.fulfill(pool, () -> {
+                    final List<ListenableFuture<Integer>> children = new ArrayList<>();
+                    for (int child = 0; child < 4; child++) {
+                        children.add(promisor.fulfill(pool, () -> value));
+                    }
+                    int sum = 0;
+                    for (final ListenableFuture<Integer> child : children) {
+                        sum += child.get();
+                    }
+                    return sum;
+                }));
+            }
+            for (int index = 0; index < futures.size(); index++) {
+                Assert.assertEquals(index * 4, futures.get(index).get(10, TimeUnit.SECONDS).intValue());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+    }
+
+    // 异步资源管理：成功、失败、取消时资源均只关闭一次，关闭失败不会被吞掉
+    @Test
+    public void test$promisor$using() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final AtomicInteger closed = new AtomicInteger();
+        final AutoCloseable resource = closed::incrementAndGet;
+
+        final ListenableFuture<Integer> successF = promisor.using(() -> resource,
+                r -> promisor.fulfill(getExecutor(), () -> 100));
+        Assert.assertEquals(100, successF.get().intValue());
+        Assert.assertEquals(1, closed.get());
+
+        final ListenableFuture<Integer> failF = promisor.using(() -> resource,
+                r -> promisor.<Integer>promise().fulfill(getExecutor(), () -> {
+                    throw new IllegalStateException("TEST!");
+                }));
+        Assert.assertTrue(failF.awaitUninterruptible().getException() instanceof IllegalStateException);
+        Assert.assertEquals(2, closed.get());
+
+        final Promise<Integer> pending = promisor.promise();
+        final ListenableFuture<Integer> cancelF = promisor.using(() -> resource, r -> pending);
+        Assert.assertTrue(cancelF.cancel(true));
+        Assert.assertTrue(pending.isCancelled());
+        Assert.assertEquals(3, closed.get());
+
+        final ListenableFuture<Integer> closeFailF = promisor.using(() -> () -> {
+            throw new IllegalArgumentException("CLOSE!");
+        }, r -> promisor.fulfill(getExecutor(), () -> 100));
+        Assert.assertTrue(closeFailF.awaitUninterruptible().getException() instanceof IllegalArgumentException);
+
+    }
+
+    // 轻量失败不填充堆栈且能被异常接力接住；开启stackless后内部产生的取消、超时异常同样不填充堆栈
+    @Test
+    public void test$promise$stackless() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        final Promise<String> failP = promisor.promise();
+        final ListenableFuture<String> recoverF = failP.exception(getExecutor(), Exception::getMessage);
+        failP.tryException(new Failure("MISS"));
+        Assert.assertEquals(0, failP.getException().getStackTrace().length);
+        Assert.assertEquals("MISS", recoverF.get());
+
+        final Promise<String> cancelP = promisor.promise();
+        cancelP.tryCancel();
+        Assert.assertTrue(cancelP.getException().getStackTrace().length > 0);
+
+        final Promisor stackless = new Promisor().stackless(true);
+        final Promise<String> stacklessP = stackless.promise();
+        stacklessP.tryCancel();
+        Assert.assertTrue(stacklessP.getException() instanceof CancellationException);
+        Assert.assertEquals(0, stacklessP.getException().getStackTrace().length);
+
+        final Promise<String> expiredP = stackless.promise(Deadline.after(0, TimeUnit.MILLISECONDS));
+        expiredP.fulfill(getExecutor(), () -> "NEVER").awaitUninterruptible();
+        Assert.assertTrue(expiredP.getException() instanceof TimeoutException);
+        Assert.assertEquals(0, expiredP.getException().getStackTrace().length);
+
+        try {
+            stackless.promise().get(1, TimeUnit.MILLISECONDS);
+            Assert.fail();
+        } catch (TimeoutException cause) {
+            Assert.assertEquals(0, cause.getStackTrace().length);
+        }
+
+    }
+
+    // 时间戳：开启后记录创建、完成及监听器开始执行的时间，接力产生的Future同样记录；未开启时没有时间戳
+    @Test
+    public void test$promise$timing() throws Exception {
+
+        Assert.assertNull(Timing.of(new Promisor().promise()));
+
+        final Promise<Integer> promise = new Promisor().timing(true).promise();
+        final ListenableFuture<Integer> thenF = promise.success(getExecutor(), v -> v + 1);
+        promise.trySuccess(100);
+        Assert.assertEquals(101, thenF.get().intValue());
+
+        final Timing timing = Timing.of(promise);
+        Assert.assertNotNull(timing);
+        Assert.assertTrue(timing.getCompletedNanos() - timing.getCreatedNanos() >= 0);
+        Assert.assertEquals(1, timing.getListenerStartedNanos().length);
+        Assert.assertTrue(timing.getListenerStartedNanos()[0] - timing.getCompletedNanos() >= 0);
+
+        final Timing thenTiming = Timing.of(thenF);
+        Assert.assertNotNull(thenTiming);
+        Assert.assertTrue(thenTiming.getCompletedNanos() - timing.getListenerStartedNanos()[0] >= 0);
+
+    }
+
+    // 异步调用链：抽中的接力链失败时附加各阶段的创建位置，向下游传播时不重复附加；未开启时不附加
+    @Test
+    public void test$promise$async_trace() throws Exception {
+
+        final Promise<Integer> plainP = new Promisor().promise();
+        final ListenableFuture<Integer> plainF = plainP.success(getExecutor(), v -> {
+            throw new IllegalStateException("TEST!");
+        });
+        plainP.trySuccess(100);
+        plainF.awaitUninterruptible();
+        Assert.assertEquals(0, plainF.getException().getSuppressed().length);
+
+        final Promise<Integer> promise = new Promisor().asyncTrace(1).promise();
+        final ListenableFuture<Integer> failF = promise
+                .success(getExecutor(), v -> v + 1)
+                .success(getExecutor(), v -> {
+                    throw new IllegalStateException("TEST!");
+                });
+        final ListenableFuture<Integer> propagateF = failF.success(getExecutor(), v -> v + 1);
+        promise.trySuccess(100);
+        propagateF.awaitUninterruptible();
+
+        Assert.assertSame(failF.getException(), propagateF.getException());
+        final Throwable[] suppressed = failF.getException().getSuppressed();
+        Assert.assertEquals(1, suppressed.length);
+        Assert.assertTrue(suppressed[0] instanceof AsyncStackTrace);
+        Assert.assertEquals(2, suppressed[0].getStackTrace().length);
+        for (final StackTraceElement site : suppressed[0].getStackTrace()) {
+            Assert.assertEquals(PromiseTestCase.class.getName(), site.getClassName());
+        }
+
+    }
+
+    // 已完成的Future：监听器立即执行，get不阻塞，内联接力直接计算；默认配置下共享实例
+    @Test
+    public void test$promisor$completed() throws Exception {
+
+        final Promisor promisor = new Promisor();
+        Assert.assertSame(promisor.succeeded(null), promisor.succeeded(null));
+        Assert.assertSame(promisor.succeeded(true), promisor.succeeded(Boolean.TRUE));
+        Assert.assertSame(promisor.cancelled(), promisor.cancelled());
+
+        final ListenableFuture<Integer> successF = promisor.succeeded(100);
+        final AtomicInteger cnt = new AtomicInteger();
+        successF.onSuccess(future -> cnt.incrementAndGet());
+        successF.onFailure(future -> cnt.addAndGet(100));
+        Assert.assertEquals(1, cnt.get());
+        Assert.assertEquals(100, successF.get().intValue());
+        Assert.assertFalse(successF.cancel(true));
+
+        // 内联接力直接得到已完成的Future
+        final ListenableFuture<Integer> inlineF = successF.success(v -> v + 1);
+        Assert.assertTrue(inlineF.isDone());
+        Assert.assertEquals(101, inlineF.getSuccess().intValue());
+        Assert.assertEquals(102, successF.<Integer>flatSuccess(v -> promisor.succeeded(v + 2)).getSuccess().intValue());
+
+        // 执行器上接力
+        Assert.assertEquals(103, successF.success(getExecutor(), v -> v + 3).get().intValue());
+        Assert.assertEquals(104, successF.<Integer>flatSuccess(getExecutor(), v -> promisor.fulfill(getExecutor(), () -> v + 4)).get().intValue());
+
+        final ListenableFuture<String> failF = promisor.failed(new RuntimeException("TEST!"));
+        Assert.assertTrue(failF.isException());
+        Assert.assertSame(failF, failF.success(v -> v + 1));
+        Assert.assertEquals("TEST!", failF.exception(Exception::getMessage).getSuccess());
+        try {
+            failF.get();
+            Assert.fail();
+        } catch (ExecutionException cause) {
+            Assert.assertEquals("TEST!", cause.getCause().getMessage());
+        }
+
+        final ListenableFuture<Integer> cancelF = promisor.cancelled();
+        Assert.assertTrue(cancelF.isCancelled());
+        Assert.assertTrue(cancelF.success(getExecutor(), v -> v + 1).awaitUninterruptible().isCancelled());
+        Assert.assertTrue(cancelF.assign(promisor.<Integer>promise()).isCancelled());
+
+        final Promise<Integer> assignP = promisor.promise();
+        successF.assign(getExecutor(), assignP);
+        Assert.assertEquals(100, assignP.get().intValue());
+
+    }
 
 }